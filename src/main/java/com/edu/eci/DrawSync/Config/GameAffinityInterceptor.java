@@ -0,0 +1,49 @@
+package com.edu.eci.DrawSync.Config;
+
+import com.edu.eci.DrawSync.service.GameAffinity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serves requests for a game owned by another node by forwarding them to that node
+ * through the {@link GameProxy}. Responses carry the node id in {@code X-DrawSync-Node}.
+ */
+@Component
+public class GameAffinityInterceptor implements HandlerInterceptor {
+
+    public static final String NODE_HEADER = "X-DrawSync-Node";
+
+    @Autowired
+    private GameAffinity gameAffinity;
+
+    @Autowired
+    private GameProxy gameProxy;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        response.setHeader(NODE_HEADER, gameAffinity.getNodeId());
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String gameCode = variables != null ? variables.get("gameCode") : null;
+        if (gameCode == null) {
+            return true;
+        }
+
+        String ownerUrl = gameAffinity.ownerUrl(gameCode);
+        if (ownerUrl == null || gameProxy.isForwarded(request)) {
+            return true;
+        }
+        gameProxy.forward(ownerUrl, request, response);
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package com.edu.eci.DrawSync.Config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forwards a request for a game owned by another node to that node and hands its
+ * answer back to the caller. Redirecting the browser instead would lose the
+ * {@code Authorization} header, which browsers drop on cross-origin redirects.
+ *
+ * <p>Forwarded requests carry {@code X-DrawSync-Forwarded}; a node that receives
+ * one serves it itself, so nodes that disagree on the owner cannot loop.</p>
+ */
+@Component
+public class GameProxy {
+
+    public static final String FORWARDED_HEADER = "X-DrawSync-Forwarded";
+
+    // Request headers the owner needs; the rest belong to this hop
+    private static final List<String> REQUEST_HEADERS = List.of(
+            HttpHeaders.AUTHORIZATION, HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT,
+            HttpHeaders.IF_NONE_MATCH);
+
+    // Response headers passed back; CORS headers are already set by this node
+    private static final List<String> RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LOCATION, "X-Next-Cursor", GameAffinityInterceptor.NODE_HEADER);
+
+    @Value("${drawsync.cluster.proxy-timeout-ms:10000}")
+    private long timeoutMs;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    /**
+     * Whether the request was already forwarded by another node.
+     */
+    public boolean isForwarded(HttpServletRequest request) {
+        return request.getHeader(FORWARDED_HEADER) != null;
+    }
+
+    /**
+     * Sends the request to the same path on {@code ownerUrl} with the given body and
+     * returns the owner's answer, or 502 when the owner cannot be reached.
+     */
+    public ResponseEntity<byte[]> forward(String ownerUrl, HttpServletRequest request, byte[] body) {
+        String target = ownerUrl + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header(FORWARDED_HEADER, "true")
+                .method(request.getMethod(), body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        for (String name : REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                builder.header(name, value);
+            }
+        }
+
+        HttpResponse<byte[]> answer;
+        try {
+            answer = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            System.err.println("Could not reach " + ownerUrl + ": " + e.getMessage());
+            return ResponseEntity.status(502).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(502).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : RESPONSE_HEADERS) {
+            answer.headers().firstValue(name).ifPresent(value -> headers.set(name, value));
+        }
+        return ResponseEntity.status(answer.statusCode()).headers(headers).body(answer.body());
+    }
+
+    /**
+     * Forwards the request with its own body and writes the owner's answer to
+     * {@code response}.
+     */
+    public void forward(String ownerUrl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ResponseEntity<byte[]> answer = forward(ownerUrl, request, request.getInputStream().readAllBytes());
+        response.setStatus(answer.getStatusCode().value());
+        for (Map.Entry<String, List<String>> header : answer.getHeaders().entrySet()) {
+            response.setHeader(header.getKey(), header.getValue().get(0));
+        }
+        if (answer.getBody() != null && answer.getBody().length > 0) {
+            response.getOutputStream().write(answer.getBody());
+        }
+    }
+}
@@ -1,19 +1,186 @@
 package com.edu.eci.DrawSync.Config;
 
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.Stroke;
+import com.mongodb.MongoException;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 
 import jakarta.annotation.PostConstruct;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Configuration
 public class MongoConfig {
 
+    public static final String STROKES_BY_ID = "sessionId_id";
+    public static final String STROKES_TTL = "created_ttl";
+    public static final String GAMES_BY_PLAYER = "players_status_createdAt";
+    public static final String GAMES_BY_CREATED = "createdAt_id";
+
+    // Server error codes for an index that exists with other options or another name
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_KEY_SPECS_CONFLICT = 86;
+
     @Autowired
     private MappingMongoConverter mongoConverter;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Days strokes are kept before Mongo expires them, 0 keeps them forever
+    @Value("${drawsync.strokes.ttl-days:0}")
+    private long strokeTtlDays;
+
+    // Fail startup instead of only logging when an index cannot be created
+    @Value("${drawsync.mongo.require-indexes:false}")
+    private boolean requireIndexes;
+
     @PostConstruct
     public void setUpMongoEscapeCharacterConversion() {
         mongoConverter.setMapKeyDotReplacement("_");
     }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexesOnStartup() {
+        List<String> missing;
+        try {
+            missing = ensureIndexes(mongoTemplate, strokeTtlDays);
+        } catch (Exception e) {
+            System.err.println("Error creating MongoDB indexes: " + e.getMessage());
+            if (requireIndexes) {
+                throw new IllegalStateException("Could not create MongoDB indexes", e);
+            }
+            return;
+        }
+
+        if (missing.isEmpty()) {
+            System.out.println("MongoDB indexes verified");
+            return;
+        }
+        System.err.println("MongoDB indexes missing after startup: " + missing);
+        if (requireIndexes) {
+            throw new IllegalStateException("Missing MongoDB indexes: " + missing);
+        }
+    }
+
+    /**
+     * Indexes the application queries rely on, per entity.
+     */
+    public static Map<Class<?>, List<Index>> indexes(long strokeTtlDays) {
+        Map<Class<?>, List<Index>> indexes = new LinkedHashMap<>();
+
+        List<Index> strokes = new ArrayList<>();
+        // History and its pages: equality on sessionId, range and sort on the stroke id
+        strokes.add(new Index()
+                .on("sessionId", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named(STROKES_BY_ID));
+        if (strokeTtlDays > 0) {
+            strokes.add(new Index()
+                    .on("createdAt", Sort.Direction.ASC)
+                    .expire(Duration.ofDays(strokeTtlDays))
+                    .named(STROKES_TTL));
+        }
+        indexes.put(Stroke.class, strokes);
+
+        // Recent games of a player: equality on players and status, sort on createdAt
+        List<Index> games = new ArrayList<>();
+        games.add(new Index()
+                .on("players", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.DESC)
+                .named(GAMES_BY_PLAYER));
+        // Game listing: keyset pages and the stream, newest first
+        games.add(new Index()
+                .on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named(GAMES_BY_CREATED));
+        indexes.put(Game.class, games);
+
+        return indexes;
+    }
+
+    /**
+     * Creates the application indexes and returns the names of any that are still
+     * missing afterwards.
+     */
+    public static List<String> ensureIndexes(MongoTemplate mongoTemplate, long strokeTtlDays) {
+        List<String> missing = new ArrayList<>();
+        indexes(strokeTtlDays).forEach((entity, definitions) -> {
+            IndexOperations operations = mongoTemplate.indexOps(entity);
+            for (Index index : definitions) {
+                String name = index.getIndexOptions().getString("name");
+                try {
+                    operations.createIndex(index);
+                } catch (RuntimeException e) {
+                    // An older version of the index (e.g. a changed TTL or name) is replaced; other errors are not ours to fix
+                    if (!isIndexConflict(e)) {
+                        throw e;
+                    }
+                    String conflicting = conflictingIndex(operations, index, name);
+                    System.err.println("Recreating index " + conflicting + " as " + name + ": " + e.getMessage());
+                    operations.dropIndex(conflicting);
+                    operations.createIndex(index);
+                }
+            }
+
+            Set<String> existing = operations.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            if (entity == Stroke.class && strokeTtlDays <= 0 && existing.contains(STROKES_TTL)) {
+                operations.dropIndex(STROKES_TTL);
+            }
+            definitions.stream()
+                    .map(index -> index.getIndexOptions().getString("name"))
+                    .filter(name -> !existing.contains(name))
+                    .forEach(name -> missing.add(mongoTemplate.getCollectionName(entity) + "." + name));
+        });
+        return missing;
+    }
+
+    private static boolean isIndexConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo) {
+                return mongo.getCode() == INDEX_OPTIONS_CONFLICT || mongo.getCode() == INDEX_KEY_SPECS_CONFLICT;
+            }
+        }
+        return false;
+    }
+
+    // The existing index with the same name, or else the one on the same keys under another name
+    private static String conflictingIndex(IndexOperations operations, Index index, String name) {
+        Document keys = index.getIndexKeys();
+        return operations.getIndexInfo().stream()
+                .filter(info -> !name.equals(info.getName()))
+                .filter(info -> keys.equals(keysOf(info)))
+                .map(IndexInfo::getName)
+                .findFirst()
+                .orElse(name);
+    }
+
+    private static Document keysOf(IndexInfo info) {
+        Document keys = new Document();
+        for (IndexField field : info.getIndexFields()) {
+            keys.append(field.getKey(), field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+        }
+        return keys;
+    }
 }
@@ -35,6 +35,10 @@ public class SecurityConfig {
                         // Public endpoints - games
                         .requestMatchers("/api/games/available").permitAll()
                         .requestMatchers("/api/games/recent/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/clock").permitAll()
+                        // Lets <img> load drawings; ids are keyed with drawsync.drawings.id-secret, so they
+                        // cannot be derived from an image, only learned from the game the drawing belongs to
+                        .requestMatchers(HttpMethod.GET, "/api/drawings/*").permitAll()
                         // Public endpoints - WebSocket
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/queue/**").permitAll()
@@ -68,6 +72,8 @@ public class SecurityConfig {
                 "PATCH"));
 
         config.setAllowedHeaders(List.of("*"));
+        // Lets the browser read the lobby list version and paging cursor
+        config.setExposedHeaders(List.of("ETag", "X-Next-Cursor"));
         config.setAllowCredentials(true);
 
         // Permitir que el navegador cachee la respuesta preflight por 1 hora
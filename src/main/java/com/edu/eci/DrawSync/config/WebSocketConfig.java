@@ -1,7 +1,11 @@
 package com.edu.eci.DrawSync.Config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -10,9 +14,51 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // "simple" keeps subscriptions in this JVM, "relay" forwards them to an external STOMP broker
+    @Value("${drawsync.broker.mode:simple}")
+    private String brokerMode = "simple";
+
+    @Value("${drawsync.broker.relay.host:localhost}")
+    private String relayHost = "localhost";
+
+    @Value("${drawsync.broker.relay.port:61613}")
+    private int relayPort = 61613;
+
+    @Value("${drawsync.broker.relay.client-login:guest}")
+    private String clientLogin = "guest";
+
+    @Value("${drawsync.broker.relay.client-passcode:guest}")
+    private String clientPasscode = "guest";
+
+    @Value("${drawsync.broker.relay.system-login:guest}")
+    private String systemLogin = "guest";
+
+    @Value("${drawsync.broker.relay.system-passcode:guest}")
+    private String systemPasscode = "guest";
+
+    @Value("${drawsync.broker.relay.virtual-host:}")
+    private String virtualHost = "";
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equals(brokerMode)) {
+            // Every node relays to the same broker, so a message published on any node reaches
+            // subscribers connected to all of them
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode)
+                    .setTcpClient(new ReactorNettyTcpClient<>(relayHost, relayPort, new StompReactorNettyCodec()));
+            if (!virtualHost.isBlank()) {
+                relay.setVirtualHost(virtualHost);
+            }
+            System.out.println("Relaying STOMP destinations to broker at " + relayHost + ":" + relayPort);
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -20,4 +66,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,14 @@
 package com.edu.eci.DrawSync.controller;
 import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.DTO.GamePage;
 import com.edu.eci.DrawSync.repository.GameRepository;
+import com.edu.eci.DrawSync.service.GameHistoryService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
-import java.util.List;
 @RestController
 @RequestMapping("/api")
 public class ApiController {
@@ -13,15 +16,42 @@ public class ApiController {
 
     private final GameRepository gameRepository;
 
+    private final GameHistoryService gameHistoryService;
 
-    public ApiController(GameRepository gameRepository) {
+
+    public ApiController(GameRepository gameRepository, GameHistoryService gameHistoryService) {
         this.gameRepository = gameRepository;
+        this.gameHistoryService = gameHistoryService;
     }
 
 
+    /**
+     * Stored games newest first, paged with the {@code after} cursor.
+     */
     @GetMapping("/games")
-    public List<Game> listGames() {
-        return gameRepository.findAll();
+    public ResponseEntity<?> listGames(@RequestParam(required = false) String status,
+            @RequestParam(required = false) String player,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            GamePage page = gameHistoryService.listGames(status, player, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Every stored game matching the filters as NDJSON, written while it is read from Mongo.
+     */
+    @GetMapping(value = "/games/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamGames(@RequestParam(required = false) String status,
+            @RequestParam(required = false) String player) {
+        StreamingResponseBody body = out -> gameHistoryService.streamGames(status, player, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
 
@@ -30,4 +60,4 @@ public class ApiController {
         Game saved = gameRepository.save(game);
         return ResponseEntity.ok(saved);
     }
-}
\ No newline at end of file
+}
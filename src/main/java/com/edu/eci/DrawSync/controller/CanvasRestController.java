@@ -1,8 +1,14 @@
 package com.edu.eci.DrawSync.controller;
 
+import com.edu.eci.DrawSync.model.PointCodec;
 import com.edu.eci.DrawSync.model.Stroke;
+import com.edu.eci.DrawSync.model.DTO.StrokePage;
 import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.edu.eci.DrawSync.service.CanvasService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,8 +20,55 @@ public class CanvasRestController {
     @Autowired
     private StrokeRepository strokeRepository;
 
+    @Autowired
+    private CanvasService canvasService;
+
+    /**
+     * The whole history in stroke id order, the order {@code /strokes} pages in.
+     * Strokes are stored packed; {@code encoding=json} (the default) expands them
+     * back to point lists for clients that do not read {@code encodedPoints}.
+     */
     @GetMapping("/{sessionId}/history")
-    public List<Stroke> getHistory(@PathVariable String sessionId) {
-        return strokeRepository.findBySessionIdOrderByTimestampAsc(sessionId);
+    public List<Stroke> getHistory(@PathVariable String sessionId,
+            @RequestParam(defaultValue = "json") String encoding) {
+        return encode(strokeRepository.findBySessionIdOrderByIdAsc(sessionId), encoding);
+    }
+
+    /**
+     * Same strokes as {@code /history}, written as NDJSON while they are read from
+     * Mongo instead of being collected in a list first.
+     */
+    @GetMapping(value = "/{sessionId}/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamHistory(@PathVariable String sessionId,
+            @RequestParam(defaultValue = "json") String encoding) {
+        boolean packed = "packed".equals(encoding);
+        StreamingResponseBody body = out -> canvasService.streamHistory(sessionId, packed, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Strokes stored after the stroke id {@code after}, paged with the returned cursor.
+     * Late joiners read the canvas this way, starting without {@code after}.
+     */
+    @GetMapping("/{sessionId}/strokes")
+    public ResponseEntity<?> getStrokes(@PathVariable String sessionId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "json") String encoding) {
+        try {
+            StrokePage page = canvasService.getStrokes(sessionId, after, limit);
+            return ResponseEntity.ok(new StrokePage(encode(page.strokes(), encoding), page.nextCursor(), page.hasMore()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private List<Stroke> encode(List<Stroke> strokes, String encoding) {
+        if ("packed".equals(encoding)) {
+            return strokes.stream().map(stroke -> stroke.packed(PointCodec.DEFAULT_SCALE)).toList();
+        }
+        return strokes.stream().map(Stroke::unpacked).toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.edu.eci.DrawSync.controller;
+
+import com.edu.eci.DrawSync.model.DTO.ClockSample;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/clock")
+@CrossOrigin(origins = "*")
+public class ClockController {
+
+    /**
+     * Clock offset handshake: the client sends its own time as {@code t} and
+     * takes the sample with the shortest round trip out of a few probes.
+     */
+    @GetMapping
+    public ResponseEntity<ClockSample> sample(@RequestParam(name = "t", required = false) Long clientTime) {
+        long receivedAt = System.currentTimeMillis();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new ClockSample(clientTime, receivedAt, System.currentTimeMillis()));
+    }
+}
@@ -2,8 +2,10 @@ package com.edu.eci.DrawSync.controller;
 
 import com.edu.eci.DrawSync.model.Message;
 import com.edu.eci.DrawSync.model.Stroke;
-import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.edu.eci.DrawSync.service.StrokeBroadcaster;
+import com.edu.eci.DrawSync.service.StrokeJournal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
@@ -12,7 +14,17 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class DrawController {
     @Autowired
-    private StrokeRepository strokeRepository;
+    private StrokeJournal strokeJournal;
+
+    @Autowired
+    private StrokeBroadcaster strokeBroadcaster;
+
+    // "json" keeps broadcasting plain point lists for old clients, "packed" sends encodedPoints only
+    @Value("${drawsync.strokes.wire-format:json}")
+    private String wireFormat;
+
+    @Value("${drawsync.strokes.point-scale:10}")
+    private int pointScale;
 
     @MessageMapping("/draw/{gameCode}")
     @SendTo("/topic/{gameCode}/draw")
@@ -21,12 +33,20 @@ public class DrawController {
         return message;
     }
     @MessageMapping("/stroke/{gameCode}")
-    @SendTo("/topic/{gameCode}/strokes")
-    public Stroke handleStroke(@DestinationVariable String gameCode, Stroke stroke) {
+    public void handleStroke(@DestinationVariable String gameCode, Stroke stroke) {
         if (stroke.getTimestamp() == 0) stroke.setTimestamp(System.currentTimeMillis());
         stroke.setSessionId(gameCode); 
-        strokeRepository.save(stroke);
-        return stroke;
+        Stroke packed;
+        try {
+            packed = stroke.packed(pointScale);
+        } catch (IllegalArgumentException e) {
+            // Malformed encodedPoints: drop the frame before it is stored or broadcast
+            System.err.println("Rejected stroke in " + gameCode + ": " + e.getMessage());
+            return;
+        }
+        strokeJournal.append(packed);
+        // Broadcast in batches on /topic/{gameCode}/strokes
+        strokeBroadcaster.publish(gameCode, "packed".equals(wireFormat) ? packed : stroke.unpacked());
     }
 }
 
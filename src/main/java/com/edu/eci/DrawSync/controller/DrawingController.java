@@ -0,0 +1,43 @@
+package com.edu.eci.DrawSync.controller;
+
+import com.edu.eci.DrawSync.service.DrawingStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/drawings")
+@CrossOrigin(origins = "*")
+public class DrawingController {
+
+    @Autowired
+    private DrawingStore drawingStore;
+
+    /**
+     * Image of a submitted drawing. The id is a keyed hash of the content, so the
+     * response never changes and can be cached for good.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getDrawing(@PathVariable String id,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String etag = "\"" + id + "\"";
+        CacheControl cache = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (etag.equals(ifNoneMatch) && DrawingStore.isContentId(id)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(cache).build();
+        }
+
+        DrawingStore.Drawing drawing = drawingStore.get(id);
+        if (drawing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(drawing.contentType()))
+                .eTag(etag)
+                .cacheControl(cache)
+                .body(drawing.data());
+    }
+}
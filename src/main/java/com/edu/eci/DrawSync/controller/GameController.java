@@ -1,24 +1,46 @@
 package com.edu.eci.DrawSync.controller;
 
+import com.edu.eci.DrawSync.Config.GameProxy;
 import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.DTO.GameHistory;
+import com.edu.eci.DrawSync.model.DTO.GameView;
+import com.edu.eci.DrawSync.model.DTO.LobbyGame;
+import com.edu.eci.DrawSync.service.GameAffinity;
 import com.edu.eci.DrawSync.service.GameService;
+import com.edu.eci.DrawSync.service.LobbyIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/games")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = { HttpHeaders.ETAG, "X-Next-Cursor" })
 public class GameController {
 
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameAffinity gameAffinity;
+
+    @Autowired
+    private GameProxy gameProxy;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/create")
-    public ResponseEntity<Game> createGame(@RequestBody Map<String, Object> payload) {
+    public ResponseEntity<GameView> createGame(@RequestBody Map<String, Object> payload) {
         String creator = (String) payload.get("creator");
         Integer maxPlayers = payload.get("maxPlayers") != null ? (Integer) payload.get("maxPlayers") : 4;
         Integer roundTime = payload.get("roundTime") != null ? (Integer) payload.get("roundTime") : 60;
@@ -26,43 +48,69 @@ public class GameController {
 
         System.out.println("Creating game - isPrivate: " + isPrivate);
 
-        Game game = gameService.createGame(creator);
-        game.setMaxPlayers(maxPlayers);
-        game.setGameDuration(roundTime);
-        game.setPrivate(isPrivate);
+        Game game = gameService.createGame(creator, maxPlayers, roundTime, isPrivate);
 
         System.out.println("Game created with code: " + game.getGameCode() + ", isPrivate: " + game.isPrivate());
 
-        return ResponseEntity.ok(game);
+        return ResponseEntity.ok(GameView.of(game));
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Game>> getAvailableGames() {
-        List<Game> availableGames = gameService.getAvailableGames();
-        return ResponseEntity.ok(availableGames);
+    public ResponseEntity<?> getAvailableGames(
+            @RequestParam(defaultValue = "age") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LobbyIndex.Order order;
+        try {
+            order = LobbyIndex.Order.parse(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid sort, use age or fill");
+        }
+
+        // The version changes with any lobby, so a poll with the current one is answered without a body.
+        // It is counted per node, so behind a load balancer it would match a list another node served
+        boolean versioned = !gameAffinity.isClustered();
+        String etag = "\"" + gameService.getAvailableGamesVersion() + "\"";
+        if (versioned && etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        LobbyIndex.Page page;
+        try {
+            page = gameService.getAvailableGames(order, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (versioned) {
+            response.eTag("\"" + page.version() + "\"");
+        }
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.games().stream().map(LobbyGame::of).toList());
     }
 
     @PostMapping("/join")
-    public ResponseEntity<?> joinGame(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<?> joinGame(@RequestBody Map<String, String> payload, HttpServletRequest request)
+            throws JsonProcessingException {
         String gameCode = payload.get("gameCode");
         String player = payload.get("player");
 
-        // Check if game exists
-        Game existingGame = gameService.getGame(gameCode);
-        if (existingGame == null) {
-            return ResponseEntity.status(404).body("Game not found");
-        }
-
-        // Check if game is full
-        if (existingGame.getPlayers().size() >= existingGame.getMaxPlayers()) {
-            return ResponseEntity.status(409).body("Game is full");
+        // The code is in the body, so the affinity interceptor cannot route this one
+        String ownerUrl = gameCode != null ? gameAffinity.ownerUrl(gameCode) : null;
+        if (ownerUrl != null && !gameProxy.isForwarded(request)) {
+            return gameProxy.forward(ownerUrl, request, objectMapper.writeValueAsBytes(payload));
         }
 
-        Game game = gameService.joinGame(gameCode, player);
-        if (game != null) {
-            return ResponseEntity.ok(game);
-        }
-        return ResponseEntity.badRequest().body("Unable to join game");
+        // Capacity check and join happen atomically in the game
+        return switch (gameService.tryJoin(gameCode, player)) {
+            case JOINED, ALREADY_JOINED -> ResponseEntity.ok(gameService.getGameView(gameCode));
+            case NOT_FOUND -> ResponseEntity.status(404).body("Game not found");
+            case FULL -> ResponseEntity.status(409).body("Game is full");
+            case NOT_JOINABLE -> ResponseEntity.badRequest().body("Unable to join game");
+        };
     }
 
     @PostMapping("/{gameCode}/start")
@@ -71,9 +119,37 @@ public class GameController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{gameCode}/pause")
+    public ResponseEntity<?> pauseGame(@PathVariable String gameCode) {
+        if (gameService.pauseTimer(gameCode)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.status(409).body("Game is not running");
+    }
+
+    @PostMapping("/{gameCode}/resume")
+    public ResponseEntity<?> resumeGame(@PathVariable String gameCode) {
+        if (gameService.resumeTimer(gameCode)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.status(409).body("Game is not paused");
+    }
+
+    @PostMapping("/{gameCode}/extend")
+    public ResponseEntity<?> extendGame(@PathVariable String gameCode, @RequestBody Map<String, Integer> payload) {
+        Integer seconds = payload.get("seconds");
+        if (seconds == null || seconds <= 0) {
+            return ResponseEntity.badRequest().body("Missing or invalid seconds");
+        }
+        if (gameService.extendTimer(gameCode, seconds)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.status(409).body("Game is not running");
+    }
+
     @GetMapping("/{gameCode}")
-    public ResponseEntity<Game> getGame(@PathVariable String gameCode) {
-        Game game = gameService.getGame(gameCode);
+    public ResponseEntity<GameView> getGame(@PathVariable String gameCode) {
+        GameView game = gameService.getGameView(gameCode);
         if (game != null) {
             return ResponseEntity.ok(game);
         }
@@ -89,13 +165,19 @@ public class GameController {
             return ResponseEntity.badRequest().body("Missing player or drawing");
         }
 
-        gameService.submitDrawing(gameCode, player, drawing);
+        try {
+            gameService.submitDrawing(gameCode, player, drawing);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid drawing: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many drawings being processed, try again");
+        }
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/recent/{player}")
-    public ResponseEntity<List<Game>> getRecentGames(@PathVariable String player) {
-        List<Game> recentGames = gameService.getRecentGames(player);
+    public ResponseEntity<List<GameHistory>> getRecentGames(@PathVariable String player) {
+        List<GameHistory> recentGames = gameService.getRecentGames(player);
         return ResponseEntity.ok(recentGames);
     }
 
@@ -0,0 +1,23 @@
+package com.edu.eci.DrawSync.controller;
+
+import com.edu.eci.DrawSync.model.DTO.LobbyUpdate;
+import com.edu.eci.DrawSync.service.LobbyFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+public class LobbyController {
+
+    @Autowired
+    private LobbyFeed lobbyFeed;
+
+    /**
+     * Subscribing to {@code /app/lobby} answers once with the current lobby list;
+     * later changes arrive on {@code /topic/lobby}.
+     */
+    @SubscribeMapping("/lobby")
+    public LobbyUpdate lobbySnapshot() {
+        return lobbyFeed.snapshot();
+    }
+}
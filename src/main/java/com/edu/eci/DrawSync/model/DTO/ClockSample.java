@@ -0,0 +1,14 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+/**
+ * Reply to a clock offset probe. With {@code t3} the time the reply arrived, the
+ * client estimates its offset to the server as
+ * {@code ((serverReceivedAt - clientTime) + (serverSentAt - t3)) / 2}.
+ */
+public record ClockSample(
+    Long clientTime,
+    long serverReceivedAt,
+    long serverSentAt
+) {
+
+}
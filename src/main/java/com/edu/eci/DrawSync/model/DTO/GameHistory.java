@@ -0,0 +1,27 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored game as history lists show it. Read with
+ * {@link com.edu.eci.DrawSync.repository.GameRepository#HISTORY_FIELDS}, so the
+ * rest of the document is not loaded.
+ */
+public record GameHistory(
+    String gameCode,
+    List<String> players,
+    GameStatus status,
+    Map<String, Integer> scores,
+    String winner,
+    String createdAt
+) {
+
+    public static GameHistory of(Game game) {
+        return new GameHistory(game.getGameCode(), game.getPlayers(), game.getStatus(), game.getScores(),
+                game.getWinner(), game.getCreatedAt());
+    }
+}
@@ -0,0 +1,15 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+import java.util.List;
+
+/**
+ * One page of stored games, newest first. Pass {@code nextCursor} back as
+ * {@code after} to read the following page.
+ */
+public record GamePage(
+    List<GameHistory> games,
+    String nextCursor,
+    boolean hasMore
+) {
+
+}
@@ -0,0 +1,32 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of a live game as clients poll it, without the drawings.
+ */
+public record GameView(
+    String gameCode,
+    List<String> players,
+    GameStatus status,
+    int timeRemaining,
+    int gameDuration,
+    long roundEndsAt,
+    int maxPlayers,
+    boolean isPrivate,
+    String currentWord,
+    Map<String, Integer> scores,
+    String winner,
+    String createdAt
+) {
+
+    public static GameView of(Game game) {
+        return new GameView(game.getGameCode(), game.getPlayers(), game.getStatus(), game.getTimeRemaining(),
+                game.getGameDuration(), game.getRoundEndsAt(), game.getMaxPlayers(), game.isPrivate(),
+                game.getCurrentWord(), game.getScores(), game.getWinner(), game.getCreatedAt());
+    }
+}
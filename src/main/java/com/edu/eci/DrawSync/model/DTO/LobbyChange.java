@@ -0,0 +1,16 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+/**
+ * One change to the lobby list. {@code added} and {@code updated} carry the
+ * current state of the game and are applied as an upsert; {@code started} and
+ * {@code removed} take the game off the list and have no {@code game}.
+ *
+ * @param type one of {@code added}, {@code updated}, {@code started}, {@code removed}
+ */
+public record LobbyChange(
+    String type,
+    String gameCode,
+    LobbyGame game
+) {
+
+}
@@ -0,0 +1,24 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+import com.edu.eci.DrawSync.model.Game;
+
+import java.util.List;
+
+/**
+ * What the lobby list shows of a joinable game.
+ */
+public record LobbyGame(
+    String gameCode,
+    String creator,
+    int players,
+    int maxPlayers,
+    int gameDuration,
+    String createdAt
+) {
+
+    public static LobbyGame of(Game game) {
+        List<String> players = List.copyOf(game.getPlayers());
+        return new LobbyGame(game.getGameCode(), players.isEmpty() ? null : players.get(0), players.size(),
+                game.getMaxPlayers(), game.getGameDuration(), game.getCreatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+import java.util.List;
+
+/**
+ * Message of the lobby feed. The reply to a subscription to {@code /app/lobby}
+ * is a {@code snapshot} listing every joinable game as {@code added}; the
+ * batches on {@code /topic/lobby} hold the coalesced changes since the last one.
+ * Batches whose {@code version} is not greater than the snapshot's are already
+ * contained in it. With a relay the snapshot's version is 0, since batches come
+ * from other nodes whose versions cannot be compared with it.
+ */
+public record LobbyUpdate(
+    long version,
+    boolean snapshot,
+    List<LobbyChange> changes
+) {
+
+}
@@ -0,0 +1,17 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+/**
+ * Round clock event sent on {@code /topic/{gameCode}/round}. {@code roundEndsAt}
+ * is the server epoch in milliseconds at which the round ends (0 while paused);
+ * clients count down to it using the offset measured with {@code /api/clock}.
+ *
+ * @param event one of {@code start}, {@code pause}, {@code resume}, {@code extend}, {@code finish}
+ */
+public record RoundClock(
+    String event,
+    long serverTime,
+    long roundEndsAt,
+    int timeRemaining
+) {
+
+}
@@ -0,0 +1,17 @@
+package com.edu.eci.DrawSync.model.DTO;
+
+import com.edu.eci.DrawSync.model.Stroke;
+
+import java.util.List;
+
+/**
+ * One page of a session's strokes in the order they were stored. Pass
+ * {@code nextCursor} back as {@code after} to read the following page.
+ */
+public record StrokePage(
+    List<Stroke> strokes,
+    String nextCursor,
+    boolean hasMore
+) {
+
+}
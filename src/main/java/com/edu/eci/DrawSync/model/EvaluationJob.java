@@ -0,0 +1,246 @@
+package com.edu.eci.DrawSync.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scoring of a finished round, kept in Mongo until it is done so a restart does
+ * not lose it. Holds what is needed to score the round without the in-memory
+ * game: the word, the players and their drawing ids. Scores are written into
+ * the drawings as they are known, so a retried job only evaluates what is left.
+ *
+ * <p>A worker owns a job while {@code leaseUntil} is in the future; the lease
+ * token in {@code leaseOwner} changes with every claim, so a worker whose lease
+ * expired can no longer write to the job. Jobs that are done or failed are
+ * removed by Mongo some time after {@code finishedAt}.</p>
+ */
+@Document(collection = "evaluation_jobs")
+public class EvaluationJob {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    /**
+     * One player's drawing and, once evaluated, its score.
+     */
+    public static class Submission {
+        private String player;
+        private String drawingId;
+        private Integer score;
+
+        public Submission() {
+        }
+
+        public Submission(String player, String drawingId) {
+            this.player = player;
+            this.drawingId = drawingId;
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public void setPlayer(String player) {
+            this.player = player;
+        }
+
+        public String getDrawingId() {
+            return drawingId;
+        }
+
+        public void setDrawingId(String drawingId) {
+            this.drawingId = drawingId;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+    }
+
+    @Id
+    private String gameCode;
+    private String word;
+    private List<String> players;
+    // A list rather than a map keyed by player, since player names may contain dots
+    private List<Submission> drawings;
+    private String gameCreatedAt;
+    private int gameDuration;
+    private int maxPlayers;
+    private Status status;
+    private long notBefore; // Epoch millis before which the job is not claimed
+    private String leaseOwner;
+    private long leaseUntil; // Epoch millis
+    private int attempts;
+    private Date finishedAt; // A date, as the TTL index needs; null until done or failed
+
+    public EvaluationJob() {
+        this.players = new ArrayList<>();
+        this.drawings = new ArrayList<>();
+        this.status = Status.PENDING;
+    }
+
+    /**
+     * A pending job for the round the game just finished.
+     */
+    public static EvaluationJob of(Game game, long notBefore) {
+        EvaluationJob job = new EvaluationJob();
+        job.gameCode = game.getGameCode();
+        job.word = game.getCurrentWord();
+        job.players = new ArrayList<>(game.getPlayers());
+        job.drawings = submissions(game.getDrawings());
+        job.gameCreatedAt = game.getCreatedAt();
+        job.gameDuration = game.getGameDuration();
+        job.maxPlayers = game.getMaxPlayers();
+        job.notBefore = notBefore;
+        return job;
+    }
+
+    public static List<Submission> submissions(Map<String, String> drawings) {
+        List<Submission> submissions = new ArrayList<>();
+        drawings.forEach((player, drawingId) -> submissions.add(new Submission(player, drawingId)));
+        return submissions;
+    }
+
+    /**
+     * The finished game as it was when the round ended, for a node that no longer has it in memory.
+     */
+    public Game toGame() {
+        Game game = new Game();
+        game.setGameCode(gameCode);
+        players.forEach(game::addPlayer);
+        game.setStatus(GameStatus.FINISHED);
+        game.setTimeRemaining(0);
+        game.setCurrentWord(word);
+        game.setCreatedAt(gameCreatedAt);
+        game.setGameDuration(gameDuration);
+        game.setMaxPlayers(maxPlayers);
+        drawings.forEach(submission -> game.addDrawing(submission.getPlayer(), submission.getDrawingId()));
+        return game;
+    }
+
+    /**
+     * Scores already recorded, by player.
+     */
+    public Map<String, Integer> scores() {
+        Map<String, Integer> scores = new HashMap<>();
+        for (Submission submission : drawings) {
+            if (submission.getScore() != null) {
+                scores.put(submission.getPlayer(), submission.getScore());
+            }
+        }
+        return scores;
+    }
+
+    public String getGameCode() {
+        return gameCode;
+    }
+
+    public void setGameCode(String gameCode) {
+        this.gameCode = gameCode;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public void setWord(String word) {
+        this.word = word;
+    }
+
+    public List<String> getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(List<String> players) {
+        this.players = players;
+    }
+
+    public List<Submission> getDrawings() {
+        return drawings;
+    }
+
+    public void setDrawings(List<Submission> drawings) {
+        this.drawings = drawings;
+    }
+
+    public String getGameCreatedAt() {
+        return gameCreatedAt;
+    }
+
+    public void setGameCreatedAt(String gameCreatedAt) {
+        this.gameCreatedAt = gameCreatedAt;
+    }
+
+    public int getGameDuration() {
+        return gameDuration;
+    }
+
+    public void setGameDuration(int gameDuration) {
+        this.gameDuration = gameDuration;
+    }
+
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    public void setMaxPlayers(int maxPlayers) {
+        this.maxPlayers = maxPlayers;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getNotBefore() {
+        return notBefore;
+    }
+
+    public void setNotBefore(long notBefore) {
+        this.notBefore = notBefore;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public long getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(long leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
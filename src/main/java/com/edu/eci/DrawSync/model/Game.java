@@ -4,32 +4,43 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 @Document(collection = "games")
 public class Game {
+
+    // Status and player list change only through compare-and-set, so concurrent requests cannot
+    // start a game twice or join past maxPlayers
+    private static final AtomicReferenceFieldUpdater<Game, GameStatus> STATUS =
+            AtomicReferenceFieldUpdater.newUpdater(Game.class, GameStatus.class, "status");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Game, List> PLAYERS =
+            AtomicReferenceFieldUpdater.newUpdater(Game.class, List.class, "players");
+
     @Id
     private String gameCode;
-    private List<String> players;
-    private GameStatus status;
-    private int timeRemaining; // in seconds
+    private volatile List<String> players;
+    private volatile GameStatus status;
+    private volatile int timeRemaining; // in seconds
     private int gameDuration; // Total duration configured for the game
+    private long roundEndsAt; // Server epoch millis at which the running round ends, 0 while paused
     private int maxPlayers; // Maximum number of players allowed
 
     @JsonProperty("isPrivate")
     private boolean isPrivate; // Whether the game requires a code to join
     private String currentWord;
     private java.util.Map<String, Integer> scores;
-    private java.util.Map<String, String> drawings; // Player -> Base64 Image
+    private java.util.Map<String, String> drawings; // Player -> drawing id in the DrawingStore
     private String createdAt; // Timestamp when game was created
     private String winner; // Winner of the game
 
     public Game() {
-        this.gameCode = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-        this.players = new ArrayList<>();
+        this.gameCode = newGameCode();
+        this.players = new CopyOnWriteArrayList<>();
         this.status = GameStatus.LOBBY;
         this.timeRemaining = 60; // Default 60 seconds
         this.gameDuration = 60; // Default duration
@@ -40,6 +51,10 @@ public class Game {
         this.createdAt = java.time.Instant.now().toString();
     }
 
+    public static String newGameCode() {
+        return UUID.randomUUID().toString().substring(0, 4).toUpperCase();
+    }
+
     public String getGameCode() {
         return gameCode;
     }
@@ -53,16 +68,67 @@ public class Game {
     }
 
     public void addPlayer(String player) {
-        this.players.add(player);
+        List<String> current;
+        do {
+            current = players;
+        } while (!PLAYERS.compareAndSet(this, current, with(current, player)));
+        this.scores.putIfAbsent(player, 0);
+    }
+
+    /**
+     * Adds the player if the game has not ended, has room and does not already
+     * have them, as one atomic step.
+     */
+    public JoinResult tryJoin(String player) {
+        while (true) {
+            List<String> current = players;
+            if (!status.isJoinable()) {
+                return JoinResult.NOT_JOINABLE;
+            }
+            if (current.contains(player)) {
+                return JoinResult.ALREADY_JOINED;
+            }
+            if (current.size() >= maxPlayers) {
+                return JoinResult.FULL;
+            }
+            if (PLAYERS.compareAndSet(this, current, with(current, player))) {
+                break;
+            }
+        }
+        // The game may have ended between the status check and the join; undo it then
+        if (!status.isJoinable()) {
+            removeFromPlayers(player);
+            return JoinResult.NOT_JOINABLE;
+        }
         this.scores.putIfAbsent(player, 0);
+        return JoinResult.JOINED;
     }
 
     public void removePlayer(String player) {
-        this.players.remove(player);
+        removeFromPlayers(player);
         this.scores.remove(player);
         this.drawings.remove(player);
     }
 
+    private void removeFromPlayers(String player) {
+        List<String> current;
+        List<String> next;
+        do {
+            current = players;
+            if (!current.contains(player)) {
+                return;
+            }
+            next = new CopyOnWriteArrayList<>(current);
+            next.remove(player);
+        } while (!PLAYERS.compareAndSet(this, current, next));
+    }
+
+    private static List<String> with(List<String> players, String player) {
+        List<String> next = new CopyOnWriteArrayList<>(players);
+        next.add(player);
+        return next;
+    }
+
     public GameStatus getStatus() {
         return status;
     }
@@ -71,6 +137,29 @@ public class Game {
         this.status = status;
     }
 
+    /**
+     * Moves from {@code from} to {@code to} if the game is still in {@code from}
+     * and the move is allowed. Only one of several concurrent callers succeeds.
+     */
+    public boolean transition(GameStatus from, GameStatus to) {
+        return from.canTransitionTo(to) && STATUS.compareAndSet(this, from, to);
+    }
+
+    /**
+     * Aborts a game that is in the lobby or playing. Returns false once it has finished.
+     */
+    public boolean abort() {
+        while (true) {
+            GameStatus current = status;
+            if (!current.canTransitionTo(GameStatus.ABORTED)) {
+                return false;
+            }
+            if (STATUS.compareAndSet(this, current, GameStatus.ABORTED)) {
+                return true;
+            }
+        }
+    }
+
     public int getTimeRemaining() {
         return timeRemaining;
     }
@@ -107,6 +196,14 @@ public class Game {
         this.drawings.put(player, drawing);
     }
 
+    public long getRoundEndsAt() {
+        return roundEndsAt;
+    }
+
+    public void setRoundEndsAt(long roundEndsAt) {
+        this.roundEndsAt = roundEndsAt;
+    }
+
     public int getGameDuration() {
         return gameDuration;
     }
@@ -4,5 +4,23 @@ public enum GameStatus {
     LOBBY,
     PLAYING,
     FINISHED,
-    ABORTED
-}
\ No newline at end of file
+    ABORTED;
+
+    /**
+     * Players can join while the game has not ended.
+     */
+    public boolean isJoinable() {
+        return this == LOBBY || this == PLAYING;
+    }
+
+    /**
+     * Allowed moves: LOBBY to PLAYING, PLAYING to FINISHED, and LOBBY or PLAYING to ABORTED.
+     */
+    public boolean canTransitionTo(GameStatus next) {
+        return switch (this) {
+            case LOBBY -> next == PLAYING || next == ABORTED;
+            case PLAYING -> next == FINISHED || next == ABORTED;
+            case FINISHED, ABORTED -> false;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.edu.eci.DrawSync.model;
+
+/**
+ * Outcome of {@link Game#tryJoin(String)}.
+ */
+public enum JoinResult {
+    JOINED,
+    ALREADY_JOINED,
+    FULL,
+    NOT_JOINABLE,
+    NOT_FOUND
+}
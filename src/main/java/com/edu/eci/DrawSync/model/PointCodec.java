@@ -0,0 +1,131 @@
+package com.edu.eci.DrawSync.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding for the points of a stroke.
+ *
+ * <p>Layout: {@code scale, count, dx0, dy0, dx1, dy1, ...} where every value is a
+ * varint. Coordinates are quantized to {@code 1/scale} canvas units and stored as
+ * zigzag-encoded deltas from the previous point (the first point is a delta from
+ * the origin), so consecutive points of a freehand stroke usually take one byte
+ * per axis. The scale travels with the data, so readers need no configuration.</p>
+ */
+public final class PointCodec {
+
+    public static final int DEFAULT_SCALE = 10;
+
+    private PointCodec() {
+    }
+
+    public static byte[] encode(List<Point> points, int scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        int count = points == null ? 0 : points.size();
+        // Header plus two short varints per point covers the usual case without growing
+        Writer writer = new Writer(10 + count * 4);
+        writer.writeVarint(scale);
+        writer.writeVarint(count);
+
+        long previousX = 0;
+        long previousY = 0;
+        for (int i = 0; i < count; i++) {
+            Point point = points.get(i);
+            long x = Math.round(point.getX() * scale);
+            long y = Math.round(point.getY() * scale);
+            writer.writeVarint(zigzag(x - previousX));
+            writer.writeVarint(zigzag(y - previousY));
+            previousX = x;
+            previousY = y;
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes packed points, rejecting data that is truncated, malformed or followed
+     * by extra bytes with an {@link IllegalArgumentException}.
+     */
+    public static List<Point> decode(byte[] data) {
+        Reader reader = new Reader(data);
+        long scale = reader.readVarint();
+        long count = reader.readVarint();
+        if (scale <= 0 || count < 0 || count > data.length) {
+            throw new IllegalArgumentException("Malformed point data");
+        }
+
+        List<Point> points = new ArrayList<>((int) count);
+        long x = 0;
+        long y = 0;
+        for (int i = 0; i < count; i++) {
+            x += unzigzag(reader.readVarint());
+            y += unzigzag(reader.readVarint());
+            points.add(new Point((double) x / scale, (double) y / scale));
+        }
+        if (reader.position != data.length) {
+            throw new IllegalArgumentException("Trailing bytes in point data");
+        }
+        return points;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeVarint(long value) {
+            while (true) {
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                if ((value & ~0x7FL) == 0) {
+                    buffer[size++] = (byte) value;
+                    return;
+                }
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("Truncated point data");
+                }
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in point data");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.edu.eci.DrawSync.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
 import java.util.List;
 
 @Document(collection = "strokes")
@@ -13,7 +15,10 @@ public class Stroke {
     private String color;
     private double thickness;
     private List<Point> points;
+    private byte[] encodedPoints; // PointCodec format, sent as Base64 in JSON
     private long timestamp;
+    @JsonIgnore
+    private Date createdAt; // Server time the stroke was stored, drives the TTL index
 
     public Stroke() {}
 
@@ -65,6 +70,14 @@ public class Stroke {
         this.points = points;
     }
 
+    public byte[] getEncodedPoints() {
+        return encodedPoints;
+    }
+
+    public void setEncodedPoints(byte[] encodedPoints) {
+        this.encodedPoints = encodedPoints;
+    }
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -73,4 +86,52 @@ public class Stroke {
         this.timestamp = timestamp;
     }
 
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Returns a copy carrying only the packed points, encoding them if this stroke
+     * arrived with a plain point list. Points that arrived packed are decoded and
+     * encoded again, so malformed data is rejected with an
+     * {@link IllegalArgumentException} instead of being stored.
+     */
+    public Stroke packed(int scale) {
+        Stroke copy = copy();
+        copy.encodedPoints = PointCodec.encode(
+                encodedPoints != null ? PointCodec.decode(encodedPoints) : points, scale);
+        copy.points = null;
+        return copy;
+    }
+
+    /**
+     * Returns a copy carrying only the plain point list, for clients that do not
+     * understand the packed format.
+     */
+    public Stroke unpacked() {
+        Stroke copy = copy();
+        if (copy.points == null && encodedPoints != null) {
+            copy.points = PointCodec.decode(encodedPoints);
+        }
+        copy.encodedPoints = null;
+        return copy;
+    }
+
+    private Stroke copy() {
+        Stroke copy = new Stroke();
+        copy.id = id;
+        copy.sessionId = sessionId;
+        copy.userId = userId;
+        copy.color = color;
+        copy.thickness = thickness;
+        copy.points = points;
+        copy.encodedPoints = encodedPoints;
+        copy.timestamp = timestamp;
+        copy.createdAt = createdAt;
+        return copy;
+    }
 }
@@ -8,10 +8,14 @@ import org.springframework.data.mongodb.repository.Query;
 import java.util.List;
 
 public interface GameRepository extends MongoRepository<Game, String> {
+
+    // Fields of a GameHistory; drawings and the round state are left in the database
+    String HISTORY_FIELDS = "{ 'players': 1, 'status': 1, 'scores': 1, 'winner': 1, 'createdAt': 1 }";
+
     // Find games where a player participated, ordered by creation date descending
     @Query("{ 'players': ?0 }")
     List<Game> findByPlayersContaining(String player, Pageable pageable);
 
-    @Query("{ 'players': ?0, 'status': 'FINISHED' }")
+    @Query(value = "{ 'players': ?0, 'status': ?1 }", fields = HISTORY_FIELDS)
     List<Game> findByPlayersContainingAndStatus(String player, String status, Pageable pageable);
-}
\ No newline at end of file
+}
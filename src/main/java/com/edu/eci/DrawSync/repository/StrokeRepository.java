@@ -2,8 +2,13 @@ package com.edu.eci.DrawSync.repository;
 
 import com.edu.eci.DrawSync.model.Stroke;
 import org.springframework.data.mongodb.repository.MongoRepository;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StrokeRepository extends MongoRepository<Stroke, String> {
-    List<Stroke> findBySessionIdOrderByTimestampAsc(String sessionId);
-}
\ No newline at end of file
+    List<Stroke> findBySessionIdOrderByIdAsc(String sessionId);
+
+    // Backed by a Mongo cursor; the caller must close the stream
+    Stream<Stroke> streamBySessionIdOrderByIdAsc(String sessionId);
+}
@@ -0,0 +1,172 @@
+package com.edu.eci.DrawSync.service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Tells apart canvases with (almost) nothing drawn on them, which are scored 0
+ * without asking the vision model.
+ */
+public final class BlankCanvas {
+
+    // Per channel difference to the background that counts as ink, out of 255
+    private static final int INK_DIFFERENCE = 24;
+
+    // Pixels looked at on large images; enough to find a single short stroke
+    private static final int MAX_SAMPLES = 1 << 18;
+
+    // Largest image decoded when no other limit is given, 2048x2048 (16 MB as ARGB)
+    public static final long MAX_PIXELS = 2048L * 2048;
+
+    private BlankCanvas() {
+    }
+
+    /**
+     * Whether at most {@code maxInkRatio} of the pixels differ from the
+     * background, taken as the top left pixel. Images that cannot be decoded
+     * are never blank.
+     */
+    public static boolean isBlank(byte[] image, double maxInkRatio) {
+        BufferedImage canvas = read(image);
+        return canvas != null && isBlank(canvas, maxInkRatio);
+    }
+
+    public static boolean isBlank(BufferedImage canvas, double maxInkRatio) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        long pixels = (long) width * height;
+        if (pixels == 0) {
+            return true;
+        }
+        int step = (int) Math.max(1, Math.ceil(Math.sqrt((double) pixels / MAX_SAMPLES)));
+
+        int background = onWhite(canvas.getRGB(0, 0));
+        long sampled = 0;
+        long ink = 0;
+        for (int y = 0; y < height; y += step) {
+            for (int x = 0; x < width; x += step) {
+                sampled++;
+                if (differs(onWhite(canvas.getRGB(x, y)), background)) {
+                    ink++;
+                }
+            }
+        }
+        return ink <= maxInkRatio * sampled;
+    }
+
+    /**
+     * Smallest rectangle holding every pixel that differs from the background,
+     * or null when there is none.
+     */
+    public static Rectangle inkBounds(BufferedImage canvas) {
+        int background = onWhite(canvas.getRGB(0, 0));
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = -1;
+        int maxY = -1;
+        int width = canvas.getWidth();
+        int[] row = new int[width];
+        for (int y = 0; y < canvas.getHeight(); y++) {
+            canvas.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                if (differs(onWhite(row[x]), background)) {
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = y;
+                }
+            }
+        }
+        return maxX < 0 ? null : new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    /**
+     * Decodes the image, or returns null when it is in a format that cannot be read
+     * or declares more than {@link #MAX_PIXELS}.
+     */
+    static BufferedImage read(byte[] image) {
+        return read(image, MAX_PIXELS);
+    }
+
+    /**
+     * Decodes the image, or returns null when it is in a format that cannot be read
+     * or declares more than {@code maxPixels}. The size is checked from the header,
+     * before any pixel memory is allocated.
+     */
+    static BufferedImage read(byte[] image, long maxPixels) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            ImageReader reader = reader(input);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Width and height the image declares, or null when it cannot be read.
+     */
+    static Dimension size(byte[] image) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            ImageReader reader = reader(input);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ImageReader reader(ImageInputStream input) {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    // Transparent canvas pixels are shown on white, so compare them that way
+    static int onWhite(int argb) {
+        int alpha = argb >>> 24;
+        int r = blend((argb >> 16) & 0xFF, alpha);
+        int g = blend((argb >> 8) & 0xFF, alpha);
+        int b = blend(argb & 0xFF, alpha);
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static int blend(int channel, int alpha) {
+        return (channel * alpha + 255 * (255 - alpha)) / 255;
+    }
+
+    static boolean differs(int rgb, int background) {
+        return Math.abs(((rgb >> 16) & 0xFF) - ((background >> 16) & 0xFF)) > INK_DIFFERENCE
+                || Math.abs(((rgb >> 8) & 0xFF) - ((background >> 8) & 0xFF)) > INK_DIFFERENCE
+                || Math.abs((rgb & 0xFF) - (background & 0xFF)) > INK_DIFFERENCE;
+    }
+}
@@ -0,0 +1,101 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.PointCodec;
+import com.edu.eci.DrawSync.model.Stroke;
+import com.edu.eci.DrawSync.model.DTO.StrokePage;
+import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Canvas history for late joiners, read straight from the stroke log: keyset
+ * pages for clients that catch up piece by piece, or the whole history streamed
+ * as NDJSON.
+ *
+ * <p>Every read is in stroke id order. The stroke journal assigns ids in the order
+ * it buffers strokes, not from the timestamps clients send, so a client clock
+ * running behind does not reorder the history.</p>
+ */
+@Service
+public class CanvasService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_EVERY = 256;
+
+    @Autowired
+    private StrokeRepository strokeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Strokes stored after the stroke {@code after} (the {@code nextCursor} of the
+     * previous page), in id order and pages of at most {@code limit}. Without
+     * {@code after} the history starts at the beginning.
+     */
+    public StrokePage getStrokes(String sessionId, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Criteria criteria = Criteria.where("sessionId").is(sessionId);
+
+        if (after != null && !after.isBlank()) {
+            if (!ObjectId.isValid(after)) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            criteria = criteria.and("_id").gt(new ObjectId(after));
+        }
+
+        // Read one extra stroke to know whether another page follows
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(pageSize + 1);
+        List<Stroke> strokes = mongoTemplate.find(query, Stroke.class);
+
+        boolean hasMore = strokes.size() > pageSize;
+        if (hasMore) {
+            strokes = strokes.subList(0, pageSize);
+        }
+        String nextCursor = strokes.isEmpty() ? after : strokes.get(strokes.size() - 1).getId();
+        return new StrokePage(strokes, nextCursor, hasMore);
+    }
+
+    /**
+     * Writes the whole history of a session as NDJSON, one stroke per line, reading
+     * from a Mongo cursor so memory use does not grow with the session length.
+     *
+     * @return the number of strokes written
+     */
+    public long streamHistory(String sessionId, boolean packed, OutputStream out) throws IOException {
+        long written = 0;
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Stroke> strokes = strokeRepository.streamBySessionIdOrderByIdAsc(sessionId);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (Stroke stroke : (Iterable<Stroke>) strokes::iterator) {
+                writer.writeValue(generator, packed ? stroke.packed(PointCodec.DEFAULT_SCALE) : stroke.unpacked());
+                generator.writeRaw('\n');
+                if (++written % STREAM_FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,51 @@
+package com.edu.eci.DrawSync.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Scores how well a drawing matches a word, from 0 to 100. The engine in use is
+ * chosen per deployment with {@code drawsync.evaluation.engine}: {@code openai}
+ * (the default) asks the vision model, {@code local} scores on the CPU without
+ * any network call.
+ */
+public interface DrawingEvaluator {
+
+    /**
+     * Scores one drawing, given as a data URL. When the engine cannot evaluate it,
+     * the future completes exceptionally with a {@link FallbackScore} holding the
+     * score to show instead.
+     */
+    CompletableFuture<Integer> evaluate(String dataUrl, String word);
+
+    /**
+     * Scores several drawings of the same word, one future per drawing in the order
+     * given. Engines that can compare drawings side by side or save requests by
+     * grouping them override this; the default scores each on its own.
+     */
+    default List<CompletableFuture<Integer>> evaluateAll(List<String> dataUrls, String word) {
+        List<CompletableFuture<Integer>> scores = new ArrayList<>(dataUrls.size());
+        for (String dataUrl : dataUrls) {
+            scores.add(evaluate(dataUrl, word));
+        }
+        return scores;
+    }
+
+    /**
+     * A score the engine made up because it could not evaluate the drawing, such as
+     * when the API is down. Good enough to show, not to keep.
+     */
+    class FallbackScore extends RuntimeException {
+        private final int score;
+
+        public FallbackScore(int score, String reason) {
+            super(reason, null, false, false);
+            this.score = score;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.edu.eci.DrawSync.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shrinks submitted drawings to what the evaluator needs: the drawn area plus a
+ * small margin, scaled down to {@code maxDimension}, flattened on white and
+ * encoded as PNG.
+ *
+ * <p>Runs on its own pool when a drawing is submitted, so the image is small and
+ * stored by the time the round is evaluated. Blank canvases become a single white
+ * pixel. Images that cannot be decoded, or that would not get smaller, are kept
+ * as they are.</p>
+ *
+ * <p>Images declaring more than {@code maxPixels} are refused before they are
+ * decoded, and at most {@code queueCapacity} drawings wait for the pool; beyond
+ * that {@link #normalizeAsync} throws {@link RejectedExecutionException}.</p>
+ */
+@Service
+public class DrawingNormalizer {
+
+    // Kept around the drawn area so strokes at the edge are not cut
+    private static final int MARGIN = 8;
+
+    @Value("${drawsync.drawings.max-dimension:512}")
+    private int maxDimension = 512;
+
+    @Value("${drawsync.drawings.max-pixels:4194304}")
+    private long maxPixels = BlankCanvas.MAX_PIXELS;
+
+    @Value("${drawsync.drawings.normalizer-threads:2}")
+    private int threads = 2;
+
+    @Value("${drawsync.drawings.normalizer-queue:64}")
+    private int queueCapacity = 64;
+
+    @Value("${drawsync.evaluation.blank-ink-ratio:0.001}")
+    private double blankInkRatio = 0.001;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void configure() {
+        executor = newExecutor(threads, queueCapacity);
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, int queueCapacity) {
+        int size = Math.max(1, threads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "drawing-normalizer-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Refuses an image that declares more than {@code maxPixels}, reading only its header.
+     *
+     * @throws IllegalArgumentException when the image is too large
+     */
+    public void checkSize(DrawingStore.Drawing drawing) {
+        Dimension size = BlankCanvas.size(drawing.data());
+        if (size != null && (long) size.width * size.height > maxPixels) {
+            throw new IllegalArgumentException("Drawing of " + size.width + "x" + size.height
+                    + " is over the limit of " + maxPixels + " pixels");
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException when {@code queueCapacity} drawings are already waiting
+     */
+    public CompletableFuture<DrawingStore.Drawing> normalizeAsync(DrawingStore.Drawing drawing) {
+        return CompletableFuture.supplyAsync(() -> normalize(drawing), executor);
+    }
+
+    public DrawingStore.Drawing normalize(DrawingStore.Drawing drawing) {
+        BufferedImage image = BlankCanvas.read(drawing.data(), maxPixels);
+        if (image == null) {
+            return drawing;
+        }
+
+        BufferedImage normalized;
+        Rectangle ink = BlankCanvas.isBlank(image, blankInkRatio) ? null : BlankCanvas.inkBounds(image);
+        if (ink == null) {
+            normalized = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+            normalized.setRGB(0, 0, Color.WHITE.getRGB());
+        } else {
+            Rectangle area = new Rectangle(ink.x - MARGIN, ink.y - MARGIN, ink.width + 2 * MARGIN, ink.height + 2 * MARGIN)
+                    .intersection(new Rectangle(0, 0, image.getWidth(), image.getHeight()));
+            double scale = Math.min(1.0, (double) maxDimension / Math.max(area.width, area.height));
+            int width = Math.max(1, (int) Math.round(area.width * scale));
+            int height = Math.max(1, (int) Math.round(area.height * scale));
+            normalized = flatten(image, area, width, height);
+        }
+
+        byte[] png = encode(normalized);
+        if (png.length >= drawing.data().length) {
+            return drawing;
+        }
+        return new DrawingStore.Drawing(png, "image/png");
+    }
+
+    // Draws the area onto an opaque white image of the given size
+    private static BufferedImage flatten(BufferedImage image, Rectangle area, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height,
+                    area.x, area.y, area.x + area.width, area.y + area.height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error encoding drawing", e);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.edu.eci.DrawSync.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Content-addressed storage for submitted drawings.
+ *
+ * <p>Drawings are kept as image bytes under the HMAC-SHA256 of their content with
+ * the key from {@code drawsync.drawings.id-secret}, and
+ * {@link com.edu.eci.DrawSync.model.Game} only holds that id per player. The same
+ * image submitted twice is stored once, while someone who has the image but not
+ * the key cannot work out its id.</p>
+ */
+public interface DrawingStore {
+
+    // Served back with this type, so anything that a browser would render as a page is refused
+    Set<String> CONTENT_TYPES = Set.of("image/png", "image/jpeg", "image/webp", "image/gif");
+
+    /**
+     * Image bytes and their media type.
+     */
+    record Drawing(byte[] data, String contentType) {
+    }
+
+    /**
+     * Stores the image and returns its id.
+     */
+    String put(byte[] data, String contentType);
+
+    /**
+     * Returns the drawing, or null when there is none with this id.
+     */
+    Drawing get(String id);
+
+    /**
+     * Decodes a {@code data:<type>;base64,<data>} URL (or plain Base64) and stores the image.
+     *
+     * @throws IllegalArgumentException when the content is not valid Base64 or not a supported image type
+     */
+    default String putDataUrl(String dataUrl) {
+        Drawing drawing = decodeDataUrl(dataUrl);
+        return put(drawing.data(), drawing.contentType());
+    }
+
+    /**
+     * The drawing as a data URL, as image inputs of the chat completions API expect it,
+     * or null when there is none with this id.
+     */
+    default String dataUrl(String id) {
+        Drawing drawing = get(id);
+        if (drawing == null) {
+            return null;
+        }
+        return "data:" + drawing.contentType() + ";base64," + Base64.getEncoder().encodeToString(drawing.data());
+    }
+
+    /**
+     * Image bytes and type of a {@code data:<type>;base64,<data>} URL, or of plain Base64 taken as PNG.
+     *
+     * @throws IllegalArgumentException when the content is not valid Base64 or not a supported image type
+     */
+    static Drawing decodeDataUrl(String dataUrl) {
+        String contentType = "image/png";
+        String base64 = dataUrl;
+        if (dataUrl.startsWith("data:")) {
+            int comma = dataUrl.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Malformed data URL");
+            }
+            String header = dataUrl.substring(5, comma);
+            int separator = header.indexOf(';');
+            String type = separator < 0 ? header : header.substring(0, separator);
+            if (!type.isEmpty()) {
+                contentType = type;
+            }
+            base64 = dataUrl.substring(comma + 1);
+        }
+        if (!CONTENT_TYPES.contains(contentType)) {
+            throw new IllegalArgumentException("Unsupported drawing type " + contentType);
+        }
+        byte[] data = Base64.getDecoder().decode(base64.strip().getBytes(StandardCharsets.ISO_8859_1));
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Empty drawing");
+        }
+        // The bytes are served back under the declared type, so they must really be that image
+        if (!hasSignature(data, contentType)) {
+            throw new IllegalArgumentException("Drawing is not a " + contentType + " image");
+        }
+        return new Drawing(data, contentType);
+    }
+
+    /**
+     * Whether the bytes start with the signature of the image type.
+     */
+    static boolean hasSignature(byte[] data, String contentType) {
+        return switch (contentType) {
+            case "image/png" -> startsWith(data, 0, new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' });
+            case "image/jpeg" -> startsWith(data, 0, new byte[] { (byte) 0xff, (byte) 0xd8, (byte) 0xff });
+            case "image/gif" -> startsWith(data, 0, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                    || startsWith(data, 0, "GIF89a".getBytes(StandardCharsets.US_ASCII));
+            case "image/webp" -> startsWith(data, 0, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                    && startsWith(data, 8, "WEBP".getBytes(StandardCharsets.US_ASCII));
+            default -> false;
+        };
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        return data.length >= offset + prefix.length
+                && Arrays.equals(data, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+
+    /**
+     * Key for {@link #contentId(byte[], byte[])}: the secret, or a random key when none is set.
+     * A random key still keeps ids private, but equal images stored by different nodes or
+     * before a restart no longer share an id.
+     */
+    static byte[] idKey(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    /**
+     * Id of a stored image: the HMAC-SHA256 of its content under {@code key}.
+     */
+    static String contentId(byte[] data, byte[] key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * SHA-256 of the content, for keys that never leave the server.
+     */
+    static String contentId(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether the string has the shape of an id returned by {@link #put}.
+     */
+    static boolean isContentId(String id) {
+        return id != null && id.length() == 64 && id.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+}
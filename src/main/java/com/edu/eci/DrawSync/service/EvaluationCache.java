@@ -0,0 +1,70 @@
+package com.edu.eci.DrawSync.service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scores already given to a drawing for a word, so the same image is not sent to
+ * the vision model twice.
+ *
+ * <p>Bounded to {@code maxEntries} with least recently used eviction; entries
+ * also expire {@code ttlMs} after they were stored, so a change of prompt or
+ * model is picked up without a restart.</p>
+ */
+public class EvaluationCache {
+
+    private record Key(String imageHash, String word) {
+    }
+
+    private record Score(int score, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Access ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Score> scores;
+
+    public EvaluationCache(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.scores = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Score> eldest) {
+                return size() > EvaluationCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached score, or null when there is none or it expired.
+     */
+    public synchronized Integer get(String imageHash, String word) {
+        Key key = key(imageHash, word);
+        Score score = scores.get(key);
+        if (score == null) {
+            return null;
+        }
+        if (System.nanoTime() - score.expiresAt() > 0) {
+            scores.remove(key);
+            return null;
+        }
+        return score.score();
+    }
+
+    public synchronized void put(String imageHash, String word, int score) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        scores.put(key(imageHash, word), new Score(score, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    private static Key key(String imageHash, String word) {
+        return new Key(imageHash, word == null ? "" : word.trim().toLowerCase(Locale.ROOT));
+    }
+}
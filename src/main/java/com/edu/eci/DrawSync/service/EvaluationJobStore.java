@@ -0,0 +1,139 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.EvaluationJob;
+import com.edu.eci.DrawSync.model.Game;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Evaluation jobs in the {@code evaluation_jobs} collection.
+ *
+ * <p>Every write after the claim is conditioned on the lease token, and scores
+ * are written with {@code $set}, so running a job twice (at-least-once, after a
+ * lease expired) records the same result instead of adding to it.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.evaluation.queue", havingValue = "mongo")
+public class EvaluationJobStore {
+
+    public static final String COLLECTION = "evaluation_jobs";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Hours a done or failed job is kept before Mongo removes it, 0 keeps it forever
+    @Value("${drawsync.evaluation.job-retention-hours:24}")
+    private long retentionHours = 24;
+
+    @PostConstruct
+    public void createIndexes() {
+        try {
+            // Serves the claim query
+            mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+                    .on("status", Sort.Direction.ASC)
+                    .on("notBefore", Sort.Direction.ASC)
+                    .named("status_notBefore"));
+            if (retentionHours > 0) {
+                // Only finished jobs have the field, so pending ones never expire
+                mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+                        .on("finishedAt", Sort.Direction.ASC)
+                        .expire(Duration.ofHours(retentionHours))
+                        .named("finishedAt_ttl"));
+            }
+        } catch (Exception e) {
+            System.err.println("Error creating index on " + COLLECTION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stores a pending job for the round the game just finished, to be claimed from {@code notBefore} on.
+     */
+    public void enqueue(Game game, long notBefore) {
+        mongoTemplate.save(EvaluationJob.of(game, notBefore), COLLECTION);
+    }
+
+    /**
+     * Replaces the drawings of a job nobody has claimed yet, for drawings stored after the round ended.
+     */
+    public void updateDrawings(String gameCode, Map<String, String> drawings) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(gameCode).and("status").is(EvaluationJob.Status.PENDING)),
+                Update.update("drawings", EvaluationJob.submissions(drawings)),
+                COLLECTION);
+    }
+
+    /**
+     * Takes the oldest due job that is pending or whose lease has expired, leasing
+     * it until {@code now + leaseMs} under a new token. Returns null when there is none.
+     */
+    public EvaluationJob claim(long now, long leaseMs) {
+        Query due = Query.query(Criteria.where("status")
+                        .in(EvaluationJob.Status.PENDING, EvaluationJob.Status.RUNNING)
+                        .and("notBefore").lte(now)
+                        .and("leaseUntil").lte(now))
+                .with(Sort.by("notBefore"));
+        Update lease = new Update()
+                .set("status", EvaluationJob.Status.RUNNING)
+                .set("leaseOwner", UUID.randomUUID().toString())
+                .set("leaseUntil", now + leaseMs)
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true),
+                EvaluationJob.class, COLLECTION);
+    }
+
+    /**
+     * Records the score of one drawing, if the lease is still held.
+     */
+    public void recordScore(EvaluationJob job, String player, int score) {
+        mongoTemplate.updateFirst(
+                leased(job).addCriteria(Criteria.where("drawings.player").is(player)),
+                Update.update("drawings.$.score", score),
+                COLLECTION);
+    }
+
+    /**
+     * Marks the job done. Returns false when the lease was lost to another worker.
+     */
+    public boolean complete(EvaluationJob job) {
+        return finish(job, EvaluationJob.Status.DONE);
+    }
+
+    /**
+     * Gives the job up for good, after too many attempts.
+     */
+    public boolean fail(EvaluationJob job) {
+        return finish(job, EvaluationJob.Status.FAILED);
+    }
+
+    /**
+     * Lets the job be claimed again from {@code retryAt}, keeping the scores recorded so far.
+     */
+    public void release(EvaluationJob job, long retryAt) {
+        mongoTemplate.updateFirst(leased(job), Update.update("leaseUntil", retryAt), COLLECTION);
+    }
+
+    private boolean finish(EvaluationJob job, EvaluationJob.Status status) {
+        return mongoTemplate.updateFirst(leased(job),
+                new Update().set("status", status).set("leaseUntil", 0L).set("finishedAt", new Date()),
+                COLLECTION).getModifiedCount() > 0;
+    }
+
+    private static Query leased(EvaluationJob job) {
+        return Query.query(Criteria.where("_id").is(job.getGameCode()).and("leaseOwner").is(job.getLeaseOwner()));
+    }
+}
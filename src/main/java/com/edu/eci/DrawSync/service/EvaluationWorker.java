@@ -0,0 +1,123 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.EvaluationJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scores rounds from the durable job queue, so a round that ends just before a
+ * restart is still scored and saved, by this node once it is back or by any
+ * other node running workers.
+ *
+ * <p>Each of the {@code workers} threads claims one due job at a time, scores
+ * it through {@link GameService#evaluateJob} and marks it done. A job whose
+ * worker dies keeps its lease until {@code leaseMs} passes and is then claimed
+ * again; one that fails is retried after {@code retryDelayMs}, up to
+ * {@code maxAttempts} claims. The lease must outlast a whole evaluation, the
+ * wait for buzzer drawings and the round deadline included.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.evaluation.queue", havingValue = "mongo")
+public class EvaluationWorker {
+
+    @Autowired
+    private EvaluationJobStore jobs;
+
+    @Autowired
+    private GameService gameService;
+
+    @Value("${drawsync.evaluation.workers:2}")
+    private int workers = 2;
+
+    @Value("${drawsync.evaluation.poll-interval-ms:1000}")
+    private long pollIntervalMs = 1000;
+
+    @Value("${drawsync.evaluation.lease-ms:120000}")
+    private long leaseMs = 120000;
+
+    @Value("${drawsync.evaluation.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${drawsync.evaluation.retry-delay-ms:5000}")
+    private long retryDelayMs = 5000;
+
+    private ScheduledExecutorService pollers;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        pollers = Executors.newScheduledThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "evaluation-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            pollers.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs due jobs until there are none left.
+     */
+    void drain() {
+        try {
+            EvaluationJob job;
+            while (!Thread.currentThread().isInterrupted()
+                    && (job = jobs.claim(System.currentTimeMillis(), leaseMs)) != null) {
+                run(job);
+            }
+        } catch (Exception e) {
+            // Keeps the poller scheduled; the next poll tries again
+            System.err.println("Error polling evaluation jobs: " + e.getMessage());
+        }
+    }
+
+    void run(EvaluationJob job) {
+        String gameCode = job.getGameCode();
+        if (job.getAttempts() > maxAttempts) {
+            System.err.println("Giving up evaluation of game " + gameCode + " after " + maxAttempts + " attempts");
+            jobs.fail(job);
+            return;
+        }
+        System.out.println("Evaluating game " + gameCode + " from its job, attempt " + job.getAttempts());
+        try {
+            gameService.evaluateJob(job, (player, score) -> {
+                try {
+                    jobs.recordScore(job, player, score);
+                } catch (Exception e) {
+                    // Only costs a re-evaluation of this drawing if the job is retried
+                    System.err.println("Error recording score of " + player + " in game " + gameCode + ": "
+                            + e.getMessage());
+                }
+            }).get(leaseMs, TimeUnit.MILLISECONDS);
+            if (!jobs.complete(job)) {
+                System.err.println("Lease on the evaluation of game " + gameCode + " was lost before it finished");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            System.err.println("Evaluation of game " + gameCode + " outlived its lease");
+        } catch (Exception e) {
+            System.err.println("Error evaluating game " + gameCode + ", retrying in " + retryDelayMs + " ms: "
+                    + e.getMessage());
+            jobs.release(job, System.currentTimeMillis() + retryDelayMs);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pollers != null) {
+            pollers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.edu.eci.DrawSync.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Drawings as files under {@code drawsync.drawings.dir}, for a single node or a
+ * directory shared by all nodes.
+ *
+ * <p>Each drawing is written to {@code <id[0..2]>/<id>.<ext>} through a temporary
+ * file and an atomic move, so readers never see a partial image and concurrent
+ * writers of the same content do not conflict.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.drawings.store", havingValue = "file")
+public class FileDrawingStore implements DrawingStore {
+
+    @Value("${drawsync.drawings.dir:${java.io.tmpdir}/drawsync-drawings}")
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "drawsync-drawings");
+
+    @Value("${drawsync.drawings.id-secret:}")
+    private String idSecret = "";
+
+    private byte[] idKey = DrawingStore.idKey(null);
+
+    public FileDrawingStore() {
+    }
+
+    FileDrawingStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (idSecret.isBlank()) {
+            System.err.println("drawsync.drawings.id-secret is not set, drawing ids change with every restart");
+        }
+        idKey = DrawingStore.idKey(idSecret);
+        try {
+            Files.createDirectories(directory);
+            System.out.println("Storing drawings in " + directory.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create drawing directory " + directory, e);
+        }
+    }
+
+    @Override
+    public String put(byte[] data, String contentType) {
+        if (!CONTENT_TYPES.contains(contentType)) {
+            throw new IllegalArgumentException("Unsupported drawing type " + contentType);
+        }
+        String id = DrawingStore.contentId(data, idKey);
+        Path target = path(id, contentType);
+        if (Files.exists(target)) {
+            return id;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), id, ".tmp");
+            try {
+                Files.write(temp, data);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error storing drawing " + id, e);
+        }
+        return id;
+    }
+
+    @Override
+    public Drawing get(String id) {
+        if (!DrawingStore.isContentId(id)) {
+            return null;
+        }
+        for (String contentType : CONTENT_TYPES) {
+            try {
+                return new Drawing(Files.readAllBytes(path(id, contentType)), contentType);
+            } catch (NoSuchFileException e) {
+                // Try the next extension
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading drawing " + id, e);
+            }
+        }
+        return null;
+    }
+
+    private Path path(String id, String contentType) {
+        return directory.resolve(id.substring(0, 2)).resolve(id + "." + contentType.substring("image/".length()));
+    }
+}
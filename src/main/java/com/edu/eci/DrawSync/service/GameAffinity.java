@@ -0,0 +1,116 @@
+package com.edu.eci.DrawSync.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides which DrawSync node owns a game when several nodes share one broker.
+ *
+ * <p>Game state and round timers live in the memory of a single node, so every
+ * HTTP request for a game must reach the same node. The owner is chosen by
+ * rendezvous hashing of the game code over {@code drawsync.cluster.nodes}, which
+ * every node (and the load balancer, if it wants to route directly) computes the
+ * same way; adding or removing a node only moves the games of that node. Without
+ * configured nodes every game is local.</p>
+ */
+@Service
+public class GameAffinity {
+
+    // Id of this node, must be one of the ids in drawsync.cluster.nodes
+    @Value("${drawsync.cluster.node-id:local}")
+    private String nodeId = "local";
+
+    // Comma separated id=baseUrl pairs, e.g. a=http://10.0.0.1:8080,b=http://10.0.0.2:8080
+    @Value("${drawsync.cluster.nodes:}")
+    private String nodesProperty = "";
+
+    private Map<String, String> nodes = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String entry : nodesProperty.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                throw new IllegalArgumentException("Invalid drawsync.cluster.nodes entry: " + entry);
+            }
+            parsed.put(parts[0].trim(), stripTrailingSlash(parts[1].trim()));
+        }
+        if (!parsed.isEmpty() && !parsed.containsKey(nodeId)) {
+            throw new IllegalArgumentException("drawsync.cluster.node-id " + nodeId + " is not in drawsync.cluster.nodes");
+        }
+        nodes = parsed;
+        if (!nodes.isEmpty()) {
+            System.out.println("Node " + nodeId + " in cluster " + nodes.keySet());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Id of the node that owns the game.
+     */
+    public String ownerOf(String gameCode) {
+        String owner = nodeId;
+        long best = Long.MIN_VALUE;
+        for (String node : nodes.keySet()) {
+            long score = score(node, gameCode);
+            if (score > best) {
+                best = score;
+                owner = node;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Whether other nodes serve games too, so state kept per node differs between requests.
+     */
+    public boolean isClustered() {
+        return !nodes.isEmpty();
+    }
+
+    public boolean isLocal(String gameCode) {
+        return nodes.isEmpty() || nodeId.equals(ownerOf(gameCode));
+    }
+
+    /**
+     * Base URL of the node that owns the game, or null when it is this node.
+     */
+    public String ownerUrl(String gameCode) {
+        if (isLocal(gameCode)) {
+            return null;
+        }
+        return nodes.get(ownerOf(gameCode));
+    }
+
+    // 64-bit FNV-1a of node and game code, finished with a murmur mix so close codes spread evenly
+    static long score(String node, String gameCode) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (node + '\u0000' + gameCode).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,125 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.DTO.GameHistory;
+import com.edu.eci.DrawSync.model.DTO.GamePage;
+import com.edu.eci.DrawSync.repository.GameRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Stored games, read newest first with keyset paging on {@code (createdAt, _id)}
+ * and only the fields of a {@link GameHistory}, so neither a page nor the stream
+ * loads drawings or grows with the size of the collection.
+ */
+@Service
+public class GameHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int STREAM_FLUSH_EVERY = 256;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Games matching the filters in pages of at most {@code limit}. {@code after}
+     * is the {@code nextCursor} of the previous page; null filters match everything.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public GamePage listGames(String status, String player, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Criteria criteria = filter(status, player);
+
+        if (after != null && !after.isBlank()) {
+            // createdAt is an ISO instant, which never contains '_'
+            int separator = after.indexOf('_');
+            if (separator <= 0 || separator == after.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            String createdAt = after.substring(0, separator);
+            String id = after.substring(separator + 1);
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    Criteria.where("createdAt").is(createdAt).and("_id").lt(id)));
+        }
+
+        // Read one extra game to know whether another page follows
+        Query query = historyQuery(criteria).limit(pageSize + 1);
+        List<Game> games = mongoTemplate.find(query, Game.class);
+
+        boolean hasMore = games.size() > pageSize;
+        if (hasMore) {
+            games = games.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Game last = games.get(games.size() - 1);
+            nextCursor = last.getCreatedAt() + "_" + last.getGameCode();
+        }
+        List<GameHistory> page = new ArrayList<>(games.size());
+        games.forEach(game -> page.add(GameHistory.of(game)));
+        return new GamePage(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Writes every game matching the filters as NDJSON, one {@link GameHistory} per
+     * line, reading from a Mongo cursor so memory use does not grow with the collection.
+     *
+     * @return the number of games written
+     */
+    public long streamGames(String status, String player, OutputStream out) throws IOException {
+        long written = 0;
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        Query query = historyQuery(filter(status, player)).cursorBatchSize(STREAM_BATCH_SIZE);
+        try (Stream<Game> games = mongoTemplate.stream(query, Game.class);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (Game game : (Iterable<Game>) games::iterator) {
+                writer.writeValue(generator, GameHistory.of(game));
+                generator.writeRaw('\n');
+                if (++written % STREAM_FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return written;
+    }
+
+    private static Criteria filter(String status, String player) {
+        Criteria criteria = new Criteria();
+        if (status != null && !status.isBlank()) {
+            criteria = criteria.and("status").is(status);
+        }
+        if (player != null && !player.isBlank()) {
+            criteria = criteria.and("players").is(player);
+        }
+        return criteria;
+    }
+
+    private static Query historyQuery(Criteria criteria) {
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"));
+        Document.parse(GameRepository.HISTORY_FIELDS).keySet().forEach(query.fields()::include);
+        return query;
+    }
+}
@@ -0,0 +1,49 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+
+import java.util.List;
+
+/**
+ * Where live games (lobbies and running rounds) are kept.
+ *
+ * <p>The node that owns a game (see {@link GameAffinity}) holds the authoritative
+ * {@link Game} instance and calls {@link #put(Game)} after every change that other
+ * nodes should see. Other nodes read games through {@link #get(String)} and
+ * {@link #findByStatus(GameStatus)} and can follow changes with a
+ * {@link Listener}.</p>
+ */
+public interface GameRegistry {
+
+    /**
+     * Notified when a game is registered, updated or removed, on this or another node.
+     */
+    interface Listener {
+
+        void gameUpdated(Game game);
+
+        void gameRemoved(String gameCode);
+    }
+
+    Game get(String gameCode);
+
+    /**
+     * Registers the game or publishes its current state.
+     */
+    void put(Game game);
+
+    Game remove(String gameCode);
+
+    /**
+     * Called by the owner once a finished game's round is scored or handed to the
+     * evaluation queue. Until then the owner keeps serving its own instance, so
+     * drawings submitted at the buzzer reach the instance being evaluated.
+     */
+    default void release(String gameCode) {
+    }
+
+    List<Game> findByStatus(GameStatus status);
+
+    void addListener(Listener listener);
+}
@@ -1,191 +1,720 @@
 package com.edu.eci.DrawSync.service;
 
+import com.edu.eci.DrawSync.model.EvaluationJob;
 import com.edu.eci.DrawSync.model.Game;
 import com.edu.eci.DrawSync.model.GameStatus;
+import com.edu.eci.DrawSync.model.JoinResult;
+import com.edu.eci.DrawSync.model.DTO.GameHistory;
+import com.edu.eci.DrawSync.model.DTO.GameView;
+import com.edu.eci.DrawSync.model.DTO.LobbyChange;
+import com.edu.eci.DrawSync.model.DTO.LobbyUpdate;
+import com.edu.eci.DrawSync.model.DTO.RoundClock;
 import com.edu.eci.DrawSync.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Service
 public class GameService {
 
-    private final Map<String, Game> games = new ConcurrentHashMap<>();
-    private final Map<String, ScheduledFuture<?>> timerTasks = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(5);
+    private final Map<String, TimingWheel.Timeout> timerTasks = new ConcurrentHashMap<>();
+    // Game code -> milliseconds left in the round when it was paused
+    private final Map<String, Long> pausedGames = new ConcurrentHashMap<>();
+    // Game code -> player -> drawing still being normalized and stored
+    private final Map<String, Map<String, CompletableFuture<Void>>> pendingDrawings = new ConcurrentHashMap<>();
+
+    // One wheel drives every game clock and evaluation deadline; due timers run in batches on the dispatcher
+    private final ExecutorService clockDispatcher = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "game-clock-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final TimingWheel clock = new TimingWheel("game-clock-wheel", 10, 512, clockDispatcher);
+
+    // Drawings are scored concurrently, bounded across all games by this pool
+    private final ThreadPoolExecutor evaluationExecutor = new ThreadPoolExecutor(8, 8, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "drawing-evaluation-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // "broadcast" sends the remaining seconds every second, "client" only sends round events with the end time
+    @Value("${drawsync.timer.mode:broadcast}")
+    private String timerMode = "broadcast";
+
+    @Value("${drawsync.evaluation.parallelism:8}")
+    private int evaluationParallelism = 8;
+
+    // "single" sends one request per drawing, "batch" scores the drawings of a round together
+    @Value("${drawsync.evaluation.mode:single}")
+    private String evaluationMode = "single";
+
+    @Value("${drawsync.evaluation.drawing-timeout-ms:20000}")
+    private long drawingTimeoutMs = 20000;
+
+    @Value("${drawsync.evaluation.deadline-ms:30000}")
+    private long evaluationDeadlineMs = 30000;
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private OpenAIService openAIService;
+    private DrawingEvaluator drawingEvaluator;
+
+    @Autowired
+    private WordPool wordPool;
 
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private StrokeJournal strokeJournal;
+
+    @Autowired
+    private StrokeBroadcaster strokeBroadcaster;
+
+    @Autowired
+    private GameAffinity gameAffinity;
+
+    @Autowired
+    private DrawingStore drawingStore;
+
+    @Autowired
+    private DrawingNormalizer drawingNormalizer;
+
+    // Present with drawsync.evaluation.queue=mongo; rounds are then scored by the EvaluationWorker
+    @Autowired(required = false)
+    private EvaluationJobStore evaluationJobs;
+
+    @Autowired
+    private GameRegistry games;
+
+    // Joinable public lobbies, kept up to date from the registry
+    private final LobbyIndex lobbyIndex = new LobbyIndex();
+
+    @PostConstruct
+    public void indexLobbies() {
+        games.addListener(lobbyIndex);
+        games.findByStatus(GameStatus.LOBBY).forEach(lobbyIndex::gameUpdated);
+    }
+
+    @PostConstruct
+    public void configureEvaluation() {
+        // Raise the maximum first so core <= max holds while resizing in either direction
+        evaluationExecutor.setMaximumPoolSize(Math.max(evaluationParallelism, evaluationExecutor.getCorePoolSize()));
+        evaluationExecutor.setCorePoolSize(evaluationParallelism);
+        evaluationExecutor.setMaximumPoolSize(evaluationParallelism);
+        evaluationExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clock.stop();
+        clockDispatcher.shutdownNow();
+        evaluationExecutor.shutdownNow();
+    }
+
     public Game createGame(String creator) {
         Game game = new Game();
+        return createGame(creator, game.getMaxPlayers(), game.getGameDuration(), game.isPrivate());
+    }
+
+    public Game createGame(String creator, int maxPlayers, int roundTime, boolean isPrivate) {
+        Game game = new Game();
+        game.setMaxPlayers(maxPlayers);
+        game.setGameDuration(roundTime);
+        game.setPrivate(isPrivate);
+        // Pick a code this node owns, so requests for the game are routed back here
+        for (int attempt = 0; attempt < 64 && !gameAffinity.isLocal(game.getGameCode()); attempt++) {
+            game.setGameCode(Game.newGameCode());
+        }
         game.addPlayer(creator);
-        games.put(game.getGameCode(), game);
+        games.put(game);
         return game;
     }
 
     public Game joinGame(String gameCode, String player) {
+        JoinResult result = tryJoin(gameCode, player);
+        return result == JoinResult.JOINED || result == JoinResult.ALREADY_JOINED ? games.get(gameCode) : null;
+    }
+
+    /**
+     * Joins the game with the capacity check and the add as one atomic step.
+     */
+    public JoinResult tryJoin(String gameCode, String player) {
         Game game = games.get(gameCode);
-        if (game != null && game.getStatus() != GameStatus.FINISHED) {
-            // Check if game is full
-            if (game.getPlayers().size() >= game.getMaxPlayers()) {
+        if (game == null) {
+            System.out.println("Failed to join game " + gameCode + ". Game not found.");
+            return JoinResult.NOT_FOUND;
+        }
+
+        JoinResult result = game.tryJoin(player);
+        switch (result) {
+            case JOINED -> {
+                games.put(game);
                 System.out.println(
-                        "Cannot join game " + gameCode + ". Game is full (" + game.getMaxPlayers() + " players max)");
-                return null;
+                        "Player " + player + " joined game " + gameCode + ". Total players: " + game.getPlayers().size());
+            }
+            case FULL -> System.out.println(
+                    "Cannot join game " + gameCode + ". Game is full (" + game.getMaxPlayers() + " players max)");
+            case NOT_JOINABLE -> System.out.println("Failed to join game " + gameCode + ". Game finished.");
+            default -> {
             }
-
-            game.addPlayer(player);
-            System.out.println(
-                    "Player " + player + " joined game " + gameCode + ". Total players: " + game.getPlayers().size());
-            return game;
         }
-        System.out.println("Failed to join game " + gameCode + ". Game not found or finished.");
-        return null;
+        return result;
     }
 
     public void startGame(String gameCode) {
         Game game = games.get(gameCode);
-        if (game != null && game.getStatus() == GameStatus.LOBBY) {
-            game.setStatus(GameStatus.PLAYING);
-
-            // Generate random word
-            String word = openAIService.getRandomWord();
+        // Only one of several concurrent start requests wins the transition
+        if (game != null && game.transition(GameStatus.LOBBY, GameStatus.PLAYING)) {
+            // Take a pre-generated word
+            String word = wordPool.next();
             game.setCurrentWord(word);
             System.out.println("Generated word for game " + gameCode + ": " + word);
             messagingTemplate.convertAndSend("/topic/" + gameCode + "/word", word);
 
             System.out.println("=== STARTING GAME " + gameCode + " ===");
             startTimer(game);
+            games.put(game);
         }
     }
 
+    /**
+     * Decodes the drawing, then shrinks and stores it on the normalizer pool; the
+     * game gets the id of the stored image once that is done. A later submission
+     * of the same player replaces an earlier one still in progress.
+     *
+     * @throws IllegalArgumentException when the drawing is not a valid Base64 image or is too large
+     * @throws RejectedExecutionException when too many drawings are waiting to be normalized
+     */
     public void submitDrawing(String gameCode, String player, String base64Image) {
         Game game = games.get(gameCode);
-        if (game != null) {
-            game.addDrawing(player, base64Image);
-            System.out.println(
-                    "Received drawing from " + player + " for game " + gameCode + ". Size: " + base64Image.length());
-        } else {
+        if (game == null) {
             System.err.println("Received drawing for unknown game: " + gameCode);
+            return;
         }
+        DrawingStore.Drawing submitted = DrawingStore.decodeDataUrl(base64Image);
+        drawingNormalizer.checkSize(submitted);
+        System.out.println("Received drawing from " + player + " for game " + gameCode
+                + ". Size: " + submitted.data().length + " bytes");
+
+        CompletableFuture<DrawingStore.Drawing> normalized = drawingNormalizer.normalizeAsync(submitted);
+        CompletableFuture<Void> stored = new CompletableFuture<>();
+        pendingDrawings.compute(gameCode, (code, players) -> {
+            Map<String, CompletableFuture<Void>> pending = players != null ? players : new ConcurrentHashMap<>();
+            pending.put(player, stored);
+            return pending;
+        });
+        normalized
+                .exceptionally(e -> {
+                    System.err.println("Error normalizing drawing of " + player + ", keeping it as sent: " + e);
+                    return submitted;
+                })
+                .thenApply(drawing -> {
+                    String drawingId = drawingStore.put(drawing.data(), drawing.contentType());
+                    System.out.println("Stored drawing " + drawingId + " of " + player + " for game " + gameCode
+                            + ", " + submitted.data().length + " -> " + drawing.data().length + " bytes");
+                    return drawingId;
+                })
+                .whenComplete((drawingId, e) -> {
+                    AtomicBoolean latest = new AtomicBoolean();
+                    pendingDrawings.computeIfPresent(gameCode, (code, pending) -> {
+                        latest.set(pending.remove(player, stored));
+                        return pending.isEmpty() ? null : pending;
+                    });
+                    if (e != null) {
+                        System.err.println("Error storing drawing of " + player + " for game " + gameCode + ": " + e);
+                    } else if (latest.get()) {
+                        game.addDrawing(player, drawingId);
+                        games.put(game);
+                        if (evaluationJobs != null && game.getStatus() == GameStatus.FINISHED) {
+                            updateEvaluationJob(game);
+                        }
+                    }
+                    stored.complete(null);
+                });
     }
 
     private void startTimer(Game game) {
         String gameCode = game.getGameCode();
 
         // Cancel any existing timer for this game
-        ScheduledFuture<?> existingTask = timerTasks.get(gameCode);
+        TimingWheel.Timeout existingTask = timerTasks.remove(gameCode);
         if (existingTask != null) {
-            existingTask.cancel(false);
+            existingTask.cancel();
             System.out.println("Cancelled existing timer for game " + gameCode);
         }
 
         System.out.println("Starting timer for game " + gameCode + " with " + game.getTimeRemaining() + " seconds");
+        synchronized (game) {
+            runClock(game, "start", game.getTimeRemaining() * 1000L);
+        }
+    }
+
+    private boolean isClientClock() {
+        return "client".equals(timerMode);
+    }
+
+    // Caller holds the game lock
+    private void runClock(Game game, String event, long remainingMs) {
+        long now = System.currentTimeMillis();
+        game.setRoundEndsAt(now + remainingMs);
+        game.setTimeRemaining((int) ((remainingMs + 999) / 1000));
+        if (isClientClock()) {
+            scheduleRoundEnd(game);
+        } else {
+            // A round resumed mid-second ticks the part of a second it had left first, so pauses do not lose it
+            scheduleTick(game, game.getRoundEndsAt() - game.getTimeRemaining() * 1000L, 0);
+        }
+        broadcastRound(game, event);
+    }
+
+    private void scheduleRoundEnd(Game game) {
+        long endsAt = game.getRoundEndsAt();
+        timerTasks.put(game.getGameCode(), clock.schedule(() -> {
+            synchronized (game) {
+                // A pause or extension since this timer was set replaced it
+                if (games.get(game.getGameCode()) == game && game.getRoundEndsAt() == endsAt
+                        && !pausedGames.containsKey(game.getGameCode())) {
+                    endRound(game);
+                }
+            }
+        }, endsAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    // Ticks are placed at startedAt + n seconds so lateness of one tick does not push back the next ones
+    private void scheduleTick(Game game, long startedAt, int tick) {
+        long delay = startedAt + tick * 1000L - System.currentTimeMillis();
+        timerTasks.put(game.getGameCode(),
+                clock.schedule(() -> onTimerTick(game, startedAt, tick), delay, TimeUnit.MILLISECONDS));
+    }
+
+    private void onTimerTick(Game game, long startedAt, int tick) {
+        String gameCode = game.getGameCode();
+        synchronized (game) {
+            if (games.get(gameCode) != game || pausedGames.containsKey(gameCode)) {
+                return; // Aborted, removed or paused while the tick was due
+            }
 
-        ScheduledFuture<?> timerTask = scheduler.scheduleAtFixedRate(() -> {
             if (game.getTimeRemaining() > 0) {
                 game.setTimeRemaining(game.getTimeRemaining() - 1);
-                System.out.println("Game " + gameCode + " timer: " + game.getTimeRemaining() + "s");
                 messagingTemplate.convertAndSend("/topic/" + gameCode + "/timer", game.getTimeRemaining());
+                scheduleTick(game, startedAt, tick + 1);
             } else {
-                game.setStatus(GameStatus.FINISHED);
-                System.out.println("Game " + gameCode + " FINISHED");
-                messagingTemplate.convertAndSend("/topic/" + gameCode + "/timer", 0);
+                endRound(game);
+            }
+        }
+    }
+
+    private void endRound(Game game) {
+        String gameCode = game.getGameCode();
+        if (!game.transition(GameStatus.PLAYING, GameStatus.FINISHED)) {
+            return; // Aborted in the meantime
+        }
+        game.setTimeRemaining(0);
+        timerTasks.remove(gameCode);
+        games.put(game);
+        System.out.println("Game " + gameCode + " FINISHED");
+        messagingTemplate.convertAndSend("/topic/" + gameCode + "/timer", 0);
+        broadcastRound(game, "finish");
+        strokeBroadcaster.close(gameCode);
+        strokeJournal.close(gameCode);
+
+        // Schedule evaluation after 10 seconds to allow for submissions
+        System.out.println("Scheduling evaluation in 10 seconds...");
+        if (evaluationJobs != null) {
+            try {
+                evaluationJobs.enqueue(game, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10));
+                // Late drawings now reach the job through updateEvaluationJob
+                games.release(gameCode);
+                return;
+            } catch (Exception e) {
+                System.err.println("Error storing evaluation job of game " + gameCode + ", evaluating in memory: "
+                        + e.getMessage());
+            }
+        }
+        clock.schedule(() -> evaluateAndBroadcastResults(game), 10, TimeUnit.SECONDS);
+    }
+
+    private void updateEvaluationJob(Game game) {
+        try {
+            evaluationJobs.updateDrawings(game.getGameCode(), game.getDrawings());
+        } catch (Exception e) {
+            System.err.println("Error updating evaluation job of game " + game.getGameCode() + ": " + e.getMessage());
+        }
+    }
+
+    private void broadcastRound(Game game, String event) {
+        messagingTemplate.convertAndSend("/topic/" + game.getGameCode() + "/round",
+                new RoundClock(event, System.currentTimeMillis(), game.getRoundEndsAt(), game.getTimeRemaining()));
+    }
 
-                // Cancel this timer task
-                ScheduledFuture<?> task = timerTasks.remove(gameCode);
+    /**
+     * Stops the round clock, keeping the time left for {@link #resumeTimer(String)}.
+     */
+    public boolean pauseTimer(String gameCode) {
+        Game game = games.get(gameCode);
+        if (game == null) {
+            return false;
+        }
+        synchronized (game) {
+            if (game.getStatus() != GameStatus.PLAYING || pausedGames.containsKey(gameCode)) {
+                return false;
+            }
+            TimingWheel.Timeout task = timerTasks.remove(gameCode);
+            if (task != null) {
+                task.cancel();
+            }
+            long remainingMs = Math.max(0, game.getRoundEndsAt() - System.currentTimeMillis());
+            pausedGames.put(gameCode, remainingMs);
+            if (isClientClock()) {
+                game.setTimeRemaining((int) ((remainingMs + 999) / 1000));
+            }
+            game.setRoundEndsAt(0);
+            games.put(game);
+            System.out.println("Game " + gameCode + " paused with " + game.getTimeRemaining() + "s left");
+            broadcastRound(game, "pause");
+            return true;
+        }
+    }
+
+    public boolean resumeTimer(String gameCode) {
+        Game game = games.get(gameCode);
+        if (game == null) {
+            return false;
+        }
+        synchronized (game) {
+            if (game.getStatus() != GameStatus.PLAYING || !pausedGames.containsKey(gameCode)) {
+                return false;
+            }
+            long remainingMs = pausedGames.remove(gameCode);
+            System.out.println("Game " + gameCode + " resumed with " + remainingMs + " ms left");
+            runClock(game, "resume", remainingMs);
+            games.put(game);
+            return true;
+        }
+    }
+
+    /**
+     * Adds time to the running (or paused) round.
+     */
+    public boolean extendTimer(String gameCode, int seconds) {
+        Game game = games.get(gameCode);
+        if (game == null || seconds <= 0) {
+            return false;
+        }
+        synchronized (game) {
+            if (game.getStatus() != GameStatus.PLAYING) {
+                return false;
+            }
+            if (isClientClock() && !pausedGames.containsKey(gameCode)) {
+                long remainingMs = Math.max(0, game.getRoundEndsAt() - System.currentTimeMillis());
+                game.setTimeRemaining((int) ((remainingMs + 999) / 1000) + seconds);
+                game.setRoundEndsAt(game.getRoundEndsAt() + seconds * 1000L);
+                TimingWheel.Timeout task = timerTasks.remove(gameCode);
                 if (task != null) {
-                    task.cancel(false);
+                    task.cancel();
                 }
-
-                // Schedule evaluation after 10 seconds to allow for submissions
-                System.out.println("Scheduling evaluation in 10 seconds...");
-                scheduler.schedule(() -> evaluateAndBroadcastResults(game), 10, TimeUnit.SECONDS);
+                scheduleRoundEnd(game);
+            } else {
+                game.setTimeRemaining(game.getTimeRemaining() + seconds);
+                if (game.getRoundEndsAt() > 0) {
+                    game.setRoundEndsAt(game.getRoundEndsAt() + seconds * 1000L);
+                }
+                pausedGames.computeIfPresent(gameCode, (code, remainingMs) -> remainingMs + seconds * 1000L);
             }
-        }, 0, 1, TimeUnit.SECONDS);
+            games.put(game);
+            System.out.println("Game " + gameCode + " extended by " + seconds + "s");
+            broadcastRound(game, "extend");
+            return true;
+        }
+    }
+
+    /**
+     * Scores the drawings of a finished round without blocking the caller. Each
+     * drawing gets {@code drawingTimeoutMs} and the whole round
+     * {@code evaluationDeadlineMs}; both are timers on the game clock wheel and
+     * score what is still pending as 0 when they fire.
+     */
+    CompletableFuture<Void> evaluateAndBroadcastResults(Game game) {
+        // Drawings submitted at the buzzer may still be on the normalizer pool
+        return drawingsStored(game.getGameCode()).thenCompose(ignored -> evaluateDrawings(game, Map.of(), null));
+    }
+
+    /**
+     * Scores the round of a claimed evaluation job, like {@link #evaluateAndBroadcastResults}.
+     * The game is rebuilt from the job when this node does not have it in memory,
+     * after a restart or when the round ended on another node. Players the job
+     * already has a score for keep it; every new score the evaluator gives is passed
+     * to {@code onScore}, while timeouts and fallback scores are not. The future fails
+     * when the game cannot be saved.
+     */
+    public CompletableFuture<Void> evaluateJob(EvaluationJob job, BiConsumer<String, Integer> onScore) {
+        Game game = games.get(job.getGameCode());
+        if (game == null || game.getStatus() != GameStatus.FINISHED) {
+            System.out.println("Game " + job.getGameCode() + " is not in memory, evaluating it from its job");
+            game = job.toGame();
+        }
+        Game round = game;
+        return drawingsStored(round.getGameCode())
+                .thenCompose(ignored -> evaluateDrawings(round, job.scores(), onScore));
+    }
+
+    /**
+     * Completes when the drawings submitted so far are stored, or after {@code drawingTimeoutMs}.
+     */
+    CompletableFuture<Void> drawingsStored(String gameCode) {
+        Map<String, CompletableFuture<Void>> pending = pendingDrawings.get(gameCode);
+        if (pending == null || pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> stored = CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]));
+        TimingWheel.Timeout timeout = clock.schedule(() -> stored.complete(null), drawingTimeoutMs, TimeUnit.MILLISECONDS);
+        stored.whenComplete((ignored, e) -> timeout.cancel());
+        return stored;
+    }
+
+    // One request per drawing
+    private Map<String, CompletableFuture<Integer>> scoreEach(Map<String, String> drawings, String word) {
+        Map<String, CompletableFuture<Integer>> scores = new HashMap<>();
+        drawings.forEach((player, drawingId) -> scores.put(player, CompletableFuture
+                .supplyAsync(() -> loadDrawing(player, drawingId), evaluationExecutor)
+                // The request is in flight without holding an evaluation thread
+                .thenCompose(drawing -> drawingEvaluator.evaluate(drawing, word))));
+        return scores;
+    }
 
-        timerTasks.put(gameCode, timerTask);
+    // All drawings of the round in as few requests as the batch size allows, scored side by side
+    private Map<String, CompletableFuture<Integer>> scoreTogether(Map<String, String> drawings, String word) {
+        Map<String, CompletableFuture<String>> loaded = new LinkedHashMap<>();
+        drawings.forEach((player, drawingId) -> loaded.put(player, CompletableFuture
+                .supplyAsync(() -> loadDrawing(player, drawingId), evaluationExecutor)));
+        // Drawings that failed to load are left out; their players get the load error
+        CompletableFuture<Map<String, CompletableFuture<Integer>>> batch = CompletableFuture
+                .allOf(loaded.values().toArray(new CompletableFuture[0]))
+                .handle((ignored, e) -> {
+                    List<String> players = new ArrayList<>();
+                    List<String> images = new ArrayList<>();
+                    loaded.forEach((player, drawing) -> {
+                        if (!drawing.isCompletedExceptionally()) {
+                            players.add(player);
+                            images.add(drawing.join());
+                        }
+                    });
+                    List<CompletableFuture<Integer>> results = drawingEvaluator.evaluateAll(images, word);
+                    Map<String, CompletableFuture<Integer>> byPlayer = new HashMap<>();
+                    for (int i = 0; i < players.size(); i++) {
+                        byPlayer.put(players.get(i), results.get(i));
+                    }
+                    return byPlayer;
+                });
+        Map<String, CompletableFuture<Integer>> scores = new HashMap<>();
+        loaded.forEach((player, drawing) -> scores.put(player, batch.thenCompose(byPlayer ->
+                drawing.thenCompose(image -> byPlayer.get(player)))));
+        return scores;
     }
 
-    private void evaluateAndBroadcastResults(Game game) {
-        System.out.println("Evaluating results for game " + game.getGameCode());
+    // A score and whether the evaluator gave it, rather than a timeout or an error
+    private record Evaluation(int score, boolean evaluated) {
+    }
+
+    // Encoded only here, for the request, and dropped with it. A drawing that is not
+    // found fails its evaluation, so it is not recorded and a retry of the job loads it again
+    private String loadDrawing(String player, String drawingId) {
+        System.out.println("Evaluating drawing for " + player + "...");
+        String drawing = drawingStore.dataUrl(drawingId);
+        if (drawing == null) {
+            throw new IllegalStateException("Drawing " + drawingId + " of " + player + " not found");
+        }
+        return drawing;
+    }
+
+    private CompletableFuture<Void> evaluateDrawings(Game game, Map<String, Integer> known,
+            BiConsumer<String, Integer> onScore) {
+        String gameCode = game.getGameCode();
+        System.out.println("Evaluating results for game " + gameCode);
         String word = game.getCurrentWord();
         Map<String, Integer> scores = game.getScores();
 
         System.out.println("Drawings to evaluate: " + game.getDrawings().size());
 
-        try {
-            game.getDrawings().forEach((player, drawing) -> {
-                try {
-                    System.out.println("Evaluating drawing for " + player + "...");
-                    int score = openAIService.evaluateDrawing(drawing, word);
-                    scores.put(player, score);
-                    System.out.println("Score for " + player + ": " + score);
-                } catch (Exception e) {
-                    System.err.println("Error evaluating drawing for " + player + ": " + e.getMessage());
-                    scores.put(player, 0); // Default score on error
+        // Score every drawing at once; each result is broadcast as soon as it is known
+        Map<String, String> drawings = new HashMap<>(game.getDrawings());
+        drawings.keySet().removeAll(known.keySet());
+        Map<String, CompletableFuture<Integer>> scoring = "batch".equals(evaluationMode)
+                ? scoreTogether(drawings, word)
+                : scoreEach(drawings, word);
+        known.forEach((player, score) -> {
+            if (game.getDrawings().containsKey(player)) {
+                scoring.put(player, CompletableFuture.completedFuture(score));
+            }
+        });
+        Map<String, CompletableFuture<Evaluation>> evaluations = new HashMap<>();
+        List<CompletableFuture<Void>> recorded = new ArrayList<>();
+        scoring.forEach((player, scored) -> {
+            CompletableFuture<Evaluation> evaluation = scored
+                    .thenApply(score -> new Evaluation(score, true))
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof DrawingEvaluator.FallbackScore fallback) {
+                            return new Evaluation(fallback.getScore(), false);
+                        }
+                        System.err.println("Error evaluating drawing for " + player + ": " + e);
+                        return new Evaluation(0, false); // Default score on error
+                    });
+            TimingWheel.Timeout timeout = clock.schedule(() -> {
+                if (evaluation.complete(new Evaluation(0, false))) {
+                    System.err.println("Evaluation of drawing for " + player + " timed out");
                 }
-            });
-        } catch (Exception e) {
-            System.err.println("Error in evaluation loop: " + e.getMessage());
-        }
+            }, drawingTimeoutMs, TimeUnit.MILLISECONDS);
+            evaluation.whenComplete((result, e) -> timeout.cancel());
+
+            recorded.add(evaluation.thenAccept(result -> {
+                int score = result.score();
+                scores.put(player, score);
+                // Only scores the evaluator gave are kept; a retry of the job evaluates the rest again
+                if (onScore != null && result.evaluated() && !known.containsKey(player)) {
+                    onScore.accept(player, score);
+                }
+                System.out.println("Score for " + player + ": " + score);
+                messagingTemplate.convertAndSend("/topic/" + gameCode + "/scores/partial",
+                        Map.of("player", player, "score", score));
+            }));
+            evaluations.put(player, evaluation);
+        });
+
+        // Whatever is still running past the deadline gets the default score; late results are ignored
+        TimingWheel.Timeout deadline = clock.schedule(() -> {
+            System.err.println("Evaluation deadline reached for game " + gameCode + ", scoring pending drawings as 0");
+            evaluations.values().forEach(evaluation -> evaluation.complete(new Evaluation(0, false)));
+        }, evaluationDeadlineMs, TimeUnit.MILLISECONDS);
+
+        return CompletableFuture.allOf(recorded.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> {
+                    deadline.cancel();
+                    finishRound(game, scores, onScore != null);
+                });
+    }
 
+    /**
+     * Picks the winner, saves the game and broadcasts the scores. With
+     * {@code mustSave}, a failed save is thrown after the broadcast, so the
+     * evaluation job is released and the round saved by a retry.
+     */
+    private void finishRound(Game game, Map<String, Integer> scores, boolean mustSave) {
         // Determine winner (player with highest score)
         String winner = scores.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse(null);
         game.setWinner(winner);
+        if (games.get(game.getGameCode()) == game) {
+            games.put(game);
+            games.release(game.getGameCode());
+        }
         System.out.println("Winner: " + winner);
 
         // Save finished game to MongoDB
+        RuntimeException saveError = null;
         try {
             gameRepository.save(game);
             System.out.println("Game " + game.getGameCode() + " saved to database");
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             System.err.println("Error saving game to database: " + e.getMessage());
+            saveError = e;
         }
 
         // Broadcast scores
         messagingTemplate.convertAndSend("/topic/" + game.getGameCode() + "/scores", scores);
+        if (mustSave && saveError != null) {
+            throw saveError;
+        }
     }
 
     public Game getGame(String gameCode) {
         return games.get(gameCode);
     }
 
+    /**
+     * What clients poll of a game. Shares the game's lists instead of copying them,
+     * so it costs one small object per request.
+     */
+    public GameView getGameView(String gameCode) {
+        Game game = games.get(gameCode);
+        return game != null ? GameView.of(game) : null;
+    }
+
     /**
      * Get the last 3 games played by a specific player
      */
-    public List<Game> getRecentGames(String player) {
+    public List<GameHistory> getRecentGames(String player) {
         System.out.println("🔍 Fetching recent FINISHED games for player: " + player);
         PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "createdAt"));
         List<Game> games = gameRepository.findByPlayersContainingAndStatus(player, "FINISHED", pageRequest);
         System.out.println("📄 Found " + games.size() + " games for " + player);
-        return games;
+        return games.stream().map(GameHistory::of).toList();
 
     }
 
     /**
-     * Get all available games (in lobby status)
+     * Get all available games (public lobbies that are not full)
      */
     public List<Game> getAvailableGames() {
-        return games.values().stream()
-                .filter(game -> game.getStatus() == GameStatus.LOBBY)
-                .collect(Collectors.toList());
+        return lobbyIndex.all();
+    }
+
+    /**
+     * One page of available games in the given order, starting after the cursor of the previous page
+     */
+    public LobbyIndex.Page getAvailableGames(LobbyIndex.Order order, String cursor, int limit) {
+        return lobbyIndex.page(order, cursor, limit);
+    }
+
+    /**
+     * Changes whenever the list of available games changes. Counted by this node
+     * only, so it cannot be compared with the version of another node.
+     */
+    public long getAvailableGamesVersion() {
+        return lobbyIndex.version();
+    }
+
+    /**
+     * Every available game, as the first message of the lobby feed
+     */
+    public LobbyUpdate getLobbySnapshot() {
+        return lobbyIndex.snapshot();
+    }
+
+    public void addLobbyListener(Consumer<LobbyChange> listener) {
+        lobbyIndex.addChangeListener(listener);
     }
 
     /**
@@ -201,10 +730,9 @@ public class GameService {
             boolean contains = game.getPlayers().contains(player);
             System.out.println("⚠️ DEBUG LEAVE - isLast: " + isLast + ", contains: " + contains);
 
-            // Check if this is the last player
-            if (isLast && contains) {
+            // Check if this is the last player (and the game was not started meanwhile)
+            if (isLast && contains && game.transition(GameStatus.LOBBY, GameStatus.ABORTED)) {
                 // Determine it as aborted but DON'T remove the player so it shows in history
-                game.setStatus(GameStatus.ABORTED);
                 game.setWinner("Abandoned");
 
                 try {
@@ -215,11 +743,14 @@ public class GameService {
                 }
 
                 games.remove(gameCode);
+                strokeBroadcaster.close(gameCode);
+                strokeJournal.close(gameCode);
                 System.out.println("Game " + gameCode + " removed (no players left)");
                 return null;
             }
 
             game.removePlayer(player);
+            games.put(game);
             System.out.println("Player " + player + " left game " + gameCode);
 
             // Should not happen due to check above, but for safety
@@ -242,16 +773,23 @@ public class GameService {
         Game game = games.remove(gameCode);
         if (game != null) {
             // Cancel any running timer
-            ScheduledFuture<?> task = timerTasks.remove(gameCode);
+            pausedGames.remove(gameCode);
+            pendingDrawings.remove(gameCode);
+            TimingWheel.Timeout task = timerTasks.remove(gameCode);
             if (task != null) {
-                task.cancel(false);
+                task.cancel();
             }
 
             // Broadcast abort message to all players
             messagingTemplate.convertAndSend("/topic/" + gameCode + "/abort", "Game aborted by creator");
+            strokeBroadcaster.close(gameCode);
+            strokeJournal.close(gameCode);
 
-            // Save aborted game
-            game.setStatus(GameStatus.ABORTED);
+            // Save aborted game, unless it already finished and keeps its results
+            if (!game.abort()) {
+                System.out.println("Game " + gameCode + " already ended, removed without aborting");
+                return true;
+            }
             game.setWinner("Aborted");
             try {
                 gameRepository.save(game);
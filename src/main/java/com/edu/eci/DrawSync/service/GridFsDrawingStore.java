@@ -0,0 +1,73 @@
+package com.edu.eci.DrawSync.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Drawings in MongoDB GridFS, named by their id, so every node and the
+ * game history can read them.
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.drawings.store", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsDrawingStore implements DrawingStore {
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    @Value("${drawsync.drawings.id-secret:}")
+    private String idSecret = "";
+
+    private byte[] idKey = DrawingStore.idKey(null);
+
+    @PostConstruct
+    public void init() {
+        if (idSecret.isBlank()) {
+            System.err.println("drawsync.drawings.id-secret is not set, drawing ids change with every restart");
+        }
+        idKey = DrawingStore.idKey(idSecret);
+    }
+
+    @Override
+    public String put(byte[] data, String contentType) {
+        String id = DrawingStore.contentId(data, idKey);
+        // Served by the default files_filename_uploadDate index
+        if (gridFsTemplate.findOne(byId(id)) == null) {
+            gridFsTemplate.store(new ByteArrayInputStream(data), id, contentType);
+        }
+        return id;
+    }
+
+    @Override
+    public Drawing get(String id) {
+        if (!DrawingStore.isContentId(id)) {
+            return null;
+        }
+        GridFSFile file = gridFsTemplate.findOne(byId(id));
+        if (file == null) {
+            return null;
+        }
+        GridFsResource resource = gridFsTemplate.getResource(file);
+        try (InputStream in = resource.getInputStream()) {
+            return new Drawing(in.readAllBytes(), resource.getContentType());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading drawing " + id, e);
+        }
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("filename").is(id));
+    }
+}
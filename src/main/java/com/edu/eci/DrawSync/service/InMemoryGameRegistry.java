@@ -0,0 +1,55 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Games kept in this JVM only. Suitable for a single node.
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.registry.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryGameRegistry implements GameRegistry {
+
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Game get(String gameCode) {
+        return games.get(gameCode);
+    }
+
+    @Override
+    public void put(Game game) {
+        games.put(game.getGameCode(), game);
+        listeners.forEach(listener -> listener.gameUpdated(game));
+    }
+
+    @Override
+    public Game remove(String gameCode) {
+        Game game = games.remove(gameCode);
+        if (game != null) {
+            listeners.forEach(listener -> listener.gameRemoved(gameCode));
+        }
+        return game;
+    }
+
+    @Override
+    public List<Game> findByStatus(GameStatus status) {
+        return games.values().stream()
+                .filter(game -> game.getStatus() == status)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,149 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.DTO.LobbyChange;
+import com.edu.eci.DrawSync.model.DTO.LobbyUpdate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes changes of the lobby list to {@code /topic/lobby}, so clients do not
+ * have to poll {@code /api/games/available}.
+ *
+ * <p>Changes are coalesced per game for {@code intervalMs} after the first one
+ * and sent as one batch: a game that fills up seat by seat produces one update
+ * with its latest player count, and a lobby created and removed within the
+ * window is not sent at all.</p>
+ *
+ * <p>With a relay, batches come from the node that owns each game and carry that
+ * node's version, which says nothing about the snapshot taken on another node.
+ * Snapshots then have version 0, so clients apply every batch after them.</p>
+ */
+@Service
+public class LobbyFeed {
+
+    public static final String TOPIC = "/topic/lobby";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameAffinity gameAffinity;
+
+    @Value("${drawsync.lobby.feed-interval-ms:200}")
+    private long intervalMs = 200;
+
+    @Value("${drawsync.broker.mode:simple}")
+    private String brokerMode = "simple";
+
+    // Guarded by this; insertion order is kept so a batch lists games in the order they first changed
+    private final Map<String, LobbyChange> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "lobby-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        gameService.addLobbyListener(this::enqueue);
+    }
+
+    /**
+     * Every available game, as the first message of the feed.
+     */
+    public LobbyUpdate snapshot() {
+        LobbyUpdate snapshot = gameService.getLobbySnapshot();
+        if ("relay".equals(brokerMode)) {
+            return new LobbyUpdate(0, true, snapshot.changes());
+        }
+        return snapshot;
+    }
+
+    void enqueue(LobbyChange change) {
+        // With a relay every node publishes to the same topic, so only the owner reports a game
+        if ("relay".equals(brokerMode) && !gameAffinity.isLocal(change.gameCode())) {
+            return;
+        }
+        synchronized (this) {
+            LobbyChange merged = merge(pending.get(change.gameCode()), change);
+            if (merged == null) {
+                pending.remove(change.gameCode());
+            } else {
+                pending.put(change.gameCode(), merged);
+            }
+            if (!flushScheduled && !pending.isEmpty()) {
+                flushScheduled = true;
+                try {
+                    flusher.schedule(this::flush, intervalMs, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    flushScheduled = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the pending changes as one batch.
+     */
+    void flush() {
+        List<LobbyChange> changes;
+        long version;
+        synchronized (this) {
+            changes = new ArrayList<>(pending.values());
+            pending.clear();
+            flushScheduled = false;
+            // Read after taking the batch, so it is at least the version of every change in it
+            version = gameService.getAvailableGamesVersion();
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(TOPIC, new LobbyUpdate(version, false, changes));
+        } catch (Exception e) {
+            System.err.println("Error sending lobby update: " + e.getMessage());
+        }
+    }
+
+    // The client only needs the net effect since the last batch it received
+    private static LobbyChange merge(LobbyChange previous, LobbyChange next) {
+        if (previous == null) {
+            return next;
+        }
+        boolean previousListed = previous.game() != null;
+        boolean nextListed = next.game() != null;
+        if ("added".equals(previous.type())) {
+            // Never sent: still new if listed, nothing to tell if it is gone again
+            return nextListed ? new LobbyChange("added", next.gameCode(), next.game()) : null;
+        }
+        if (!previousListed && nextListed) {
+            // Clients still list it from before the pending removal
+            return new LobbyChange("updated", next.gameCode(), next.game());
+        }
+        return next;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+}
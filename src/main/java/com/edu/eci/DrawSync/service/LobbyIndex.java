@@ -0,0 +1,217 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+import com.edu.eci.DrawSync.model.DTO.LobbyChange;
+import com.edu.eci.DrawSync.model.DTO.LobbyGame;
+import com.edu.eci.DrawSync.model.DTO.LobbyUpdate;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Public lobbies that can still be joined, kept sorted so a page of the lobby list
+ * costs O(log n + page) instead of a scan over every game.
+ *
+ * <p>The index follows a {@link GameRegistry} as a listener, so it sees every
+ * create, join, leave, start and abort, also those made on other nodes. A game is
+ * listed while it is in {@link GameStatus#LOBBY}, public and not full. Every change
+ * to the listing bumps {@link #version()}, which clients can use to skip fetching
+ * a list they already have, and is reported to change listeners together with
+ * the change. The version is a counter of this node: two nodes that list the same
+ * lobbies have different versions, so it is only meaningful to clients that keep
+ * talking to the same node.</p>
+ */
+public class LobbyIndex implements GameRegistry.Listener {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public enum Order {
+        /** Oldest lobby first, the one waiting the longest. */
+        AGE,
+        /** Fullest lobby first, the one closest to starting. */
+        FILL;
+
+        public static Order parse(String value) {
+            return value == null ? AGE : valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * One page of lobbies, with the cursor to pass to get the next page (null on the last one).
+     */
+    public record Page(List<Game> games, String nextCursor, long version) {
+    }
+
+    // Sort keys are copied from the game when it is indexed, so they stay stable while it sits in the sets
+    private record Entry(String gameCode, long createdAt, int players, int maxPlayers, Game game) {
+
+        String cursor() {
+            return players + ":" + maxPlayers + ":" + createdAt + ":" + gameCode;
+        }
+    }
+
+    private static final Comparator<Entry> BY_AGE = Comparator.comparingLong(Entry::createdAt)
+            .thenComparing(Entry::gameCode);
+
+    // players / maxPlayers descending, compared by cross multiplication to stay exact
+    private static final Comparator<Entry> BY_FILL = ((Comparator<Entry>) (a, b) -> Long.compare(
+            (long) b.players() * a.maxPlayers(), (long) a.players() * b.maxPlayers()))
+            .thenComparing(BY_AGE);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byAge = new ConcurrentSkipListSet<>(BY_AGE);
+    private final NavigableSet<Entry> byFill = new ConcurrentSkipListSet<>(BY_FILL);
+    private final AtomicLong version = new AtomicLong();
+    private final List<Consumer<LobbyChange>> changeListeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void gameUpdated(Game game) {
+        // Writers are serialized so both sets and the map change together, and the game is read
+        // inside the lock so a late notification cannot put back a state older than the last one
+        synchronized (this) {
+            boolean listed = game.getStatus() == GameStatus.LOBBY
+                    && !game.isPrivate()
+                    && game.getPlayers().size() < game.getMaxPlayers();
+            Entry previous = listed
+                    ? entries.put(game.getGameCode(), entry(game))
+                    : entries.remove(game.getGameCode());
+            if (previous == null && !listed) {
+                return;
+            }
+            if (previous != null) {
+                byAge.remove(previous);
+                byFill.remove(previous);
+            }
+            String type;
+            if (listed) {
+                Entry current = entries.get(game.getGameCode());
+                byAge.add(current);
+                byFill.add(current);
+                type = previous == null ? "added" : "updated";
+            } else {
+                type = game.getStatus() == GameStatus.PLAYING ? "started" : "removed";
+            }
+            version.incrementAndGet();
+            notifyChange(new LobbyChange(type, game.getGameCode(), listed ? LobbyGame.of(game) : null));
+        }
+    }
+
+    @Override
+    public void gameRemoved(String gameCode) {
+        synchronized (this) {
+            Entry previous = entries.remove(gameCode);
+            if (previous != null) {
+                byAge.remove(previous);
+                byFill.remove(previous);
+                version.incrementAndGet();
+                notifyChange(new LobbyChange("removed", gameCode, null));
+            }
+        }
+    }
+
+    /**
+     * Called with every change to the listing, in order, while the index is locked.
+     */
+    public void addChangeListener(Consumer<LobbyChange> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Every listed lobby with the version they belong to.
+     */
+    public LobbyUpdate snapshot() {
+        // Taken under the writer lock so the list and the version match exactly
+        synchronized (this) {
+            List<LobbyChange> games = byAge.stream()
+                    .map(entry -> new LobbyChange("added", entry.gameCode(), LobbyGame.of(entry.game())))
+                    .toList();
+            return new LobbyUpdate(version.get(), true, games);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} lobbies in the given order, starting after {@code cursor}.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public Page page(Order order, String cursor, int limit) {
+        long current = version.get();
+        NavigableSet<Entry> sorted = order == Order.FILL ? byFill : byAge;
+        Iterator<Entry> iterator = cursor == null || cursor.isBlank()
+                ? sorted.iterator()
+                : sorted.tailSet(parseCursor(cursor), false).iterator();
+
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Game> games = new ArrayList<>(size);
+        Entry last = null;
+        while (games.size() < size && iterator.hasNext()) {
+            last = iterator.next();
+            games.add(last.game());
+        }
+        String next = last != null && iterator.hasNext() ? last.cursor() : null;
+        return new Page(games, next, current);
+    }
+
+    /**
+     * Every listed lobby, oldest first.
+     */
+    public List<Game> all() {
+        return byAge.stream().map(Entry::game).toList();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    private void notifyChange(LobbyChange change) {
+        for (Consumer<LobbyChange> listener : changeListeners) {
+            try {
+                listener.accept(change);
+            } catch (Exception e) {
+                System.err.println("Error notifying lobby change of " + change.gameCode() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Entry entry(Game game) {
+        return new Entry(game.getGameCode(), createdAt(game), game.getPlayers().size(), game.getMaxPlayers(), game);
+    }
+
+    private static long createdAt(Game game) {
+        try {
+            return game.getCreatedAt() != null ? Instant.parse(game.getCreatedAt()).toEpochMilli() : 0;
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static Entry parseCursor(String cursor) {
+        String[] parts = cursor.split(":", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new Entry(parts[3], Long.parseLong(parts[2]), Integer.parseInt(parts[0]),
+                    Integer.parseInt(parts[1]), null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
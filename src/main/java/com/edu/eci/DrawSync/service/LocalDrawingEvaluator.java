@@ -0,0 +1,228 @@
+package com.edu.eci.DrawSync.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Scores drawings on the CPU, for offline play, tests and load, with no network
+ * latency or quota.
+ *
+ * <p>Each drawing is cropped to its strokes and reduced to a {@value #GRID}x{@value #GRID}
+ * grid of ink density, blurred so small shifts in position or stroke width barely
+ * matter. When {@code referencesDir} holds reference drawings for the word, in
+ * {@code <referencesDir>/<word>/} (lowercase, without accents), the score is the
+ * similarity to the closest one. Startup fails when {@code referencesDir} holds no
+ * words. For a word without references the engine cannot tell what was drawn, so
+ * it fails the evaluation with a {@link FallbackScore} for effort: how much of its
+ * own box the drawing fills and how much detail it has.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.evaluation.engine", havingValue = "local")
+public class LocalDrawingEvaluator implements DrawingEvaluator {
+
+    static final int GRID = 32;
+
+    // Similarity of unrelated drawings is rarely below this; it maps to a score of 0
+    private static final double SIMILARITY_FLOOR = 0.3;
+
+    @Value("${drawsync.evaluation.local.references-dir:}")
+    private String referencesDir = "";
+
+    @Value("${drawsync.evaluation.blank-ink-ratio:0.001}")
+    private double blankInkRatio = 0.001;
+
+    // Features of the reference drawings per word key, read on first use
+    private final Map<String, List<float[]>> references = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void checkReferences() {
+        if (referencesDir == null || referencesDir.isBlank()) {
+            throw new IllegalStateException(
+                    "drawsync.evaluation.engine=local needs drawsync.evaluation.local.references-dir");
+        }
+        Path dir = Path.of(referencesDir);
+        try (Stream<Path> words = Files.list(dir)) {
+            if (words.noneMatch(Files::isDirectory)) {
+                throw new IllegalStateException("No reference drawings in " + dir);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read reference drawings in " + dir, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> evaluate(String dataUrl, String word) {
+        // Cheap enough to run on the caller's thread
+        try {
+            return CompletableFuture.completedFuture(score(DrawingStore.decodeDataUrl(dataUrl).data(), word));
+        } catch (FallbackScore e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Cannot evaluate drawing for '" + word + "': " + e.getMessage());
+            return CompletableFuture.completedFuture(0);
+        }
+    }
+
+    /**
+     * Score of a drawing, or a {@link FallbackScore} for effort when there are no
+     * reference drawings for the word.
+     */
+    int score(byte[] image, String word) {
+        BufferedImage canvas = BlankCanvas.read(image);
+        if (canvas == null || BlankCanvas.isBlank(canvas, blankInkRatio)) {
+            return 0;
+        }
+        float[] features = features(canvas);
+        if (features == null) {
+            return 0;
+        }
+        List<float[]> known = referencesFor(word);
+        if (known.isEmpty()) {
+            System.err.println("No reference drawings for '" + word + "', scoring effort");
+            throw new FallbackScore(effort(features), "No reference drawings for '" + word + "'");
+        }
+        double best = 0;
+        for (float[] reference : known) {
+            best = Math.max(best, similarity(features, reference));
+        }
+        return clamp((best - SIMILARITY_FLOOR) / (1 - SIMILARITY_FLOOR) * 100);
+    }
+
+    /**
+     * Ink density of the strokes on a square grid, centered and scaled to fit,
+     * blurred and scaled to unit length. Null when there are no strokes.
+     */
+    static float[] features(BufferedImage canvas) {
+        Rectangle bounds = BlankCanvas.inkBounds(canvas);
+        if (bounds == null) {
+            return null;
+        }
+        // Keeps the aspect ratio: the longer side spans the grid, the shorter one is centered
+        int side = Math.max(bounds.width, bounds.height);
+        int offsetX = (side - bounds.width) / 2;
+        int offsetY = (side - bounds.height) / 2;
+        int background = BlankCanvas.onWhite(canvas.getRGB(0, 0));
+
+        float[] grid = new float[GRID * GRID];
+        int[] row = new int[bounds.width];
+        for (int y = 0; y < bounds.height; y++) {
+            canvas.getRGB(bounds.x, bounds.y + y, bounds.width, 1, row, 0, bounds.width);
+            int cellY = (int) ((long) (y + offsetY) * GRID / side);
+            for (int x = 0; x < bounds.width; x++) {
+                if (BlankCanvas.differs(BlankCanvas.onWhite(row[x]), background)) {
+                    grid[cellY * GRID + (int) ((long) (x + offsetX) * GRID / side)]++;
+                }
+            }
+        }
+        float[] blurred = blur(blur(grid));
+        double length = 0;
+        for (float value : blurred) {
+            length += value * value;
+        }
+        length = Math.sqrt(length);
+        for (int i = 0; i < blurred.length; i++) {
+            blurred[i] /= (float) length;
+        }
+        return blurred;
+    }
+
+    // 3x3 box blur, edges clamped
+    private static float[] blur(float[] grid) {
+        float[] result = new float[grid.length];
+        for (int y = 0; y < GRID; y++) {
+            for (int x = 0; x < GRID; x++) {
+                float sum = 0;
+                for (int dy = -1; dy <= 1; dy++) {
+                    int ny = Math.min(GRID - 1, Math.max(0, y + dy));
+                    for (int dx = -1; dx <= 1; dx++) {
+                        sum += grid[ny * GRID + Math.min(GRID - 1, Math.max(0, x + dx))];
+                    }
+                }
+                result[y * GRID + x] = sum / 9;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cosine similarity of two feature vectors, from 0 to 1.
+     */
+    static double similarity(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    // Share of the grid touched by the blurred strokes, and how often a row crosses a stroke
+    private static int effort(float[] features) {
+        float max = 0;
+        for (float value : features) {
+            max = Math.max(max, value);
+        }
+        int covered = 0;
+        int crossings = 0;
+        for (int y = 0; y < GRID; y++) {
+            boolean inside = false;
+            for (int x = 0; x < GRID; x++) {
+                boolean ink = features[y * GRID + x] > max * 0.25f;
+                if (ink) {
+                    covered++;
+                }
+                if (ink && !inside) {
+                    crossings++;
+                }
+                inside = ink;
+            }
+        }
+        double coverage = (double) covered / (GRID * GRID);
+        double detail = Math.min(1, crossings / (GRID * 2.0));
+        return clamp(100 * (0.6 * Math.min(1, coverage * 2) + 0.4 * detail));
+    }
+
+    private List<float[]> referencesFor(String word) {
+        if (referencesDir == null || referencesDir.isBlank() || word == null) {
+            return List.of();
+        }
+        return references.computeIfAbsent(WordPool.key(word), key -> load(Path.of(referencesDir, key)));
+    }
+
+    private static List<float[]> load(Path dir) {
+        List<float[]> loaded = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return loaded;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.sorted().toList()) {
+                BufferedImage image = BlankCanvas.read(Files.readAllBytes(file));
+                float[] features = image != null ? features(image) : null;
+                if (features != null) {
+                    loaded.add(features);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading reference drawings in " + dir + ": " + e.getMessage());
+        }
+        System.out.println("Loaded " + loaded.size() + " reference drawings from " + dir);
+        return loaded;
+    }
+
+    private static int clamp(double score) {
+        return (int) Math.max(0, Math.min(100, Math.round(score)));
+    }
+}
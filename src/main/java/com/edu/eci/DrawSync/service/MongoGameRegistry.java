@@ -0,0 +1,338 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Live games shared by all nodes through the {@code live_games} collection.
+ *
+ * <p>Games put by the node that owns them (see {@link GameAffinity}) stay pinned
+ * in memory as the authoritative instances (their timers hold on to them) until
+ * they are aborted or, once finished, {@link #release released} after their round
+ * is scored. Games of other nodes are read from Mongo into a near cache.
+ * A change stream on the collection refreshes that cache and notifies listeners
+ * as soon as another node writes; on a standalone server, where change streams
+ * are not available, cached entries simply expire after
+ * {@code drawsync.registry.near-cache-ttl-ms}.</p>
+ *
+ * <p>Every write sets the game's fields with {@code $set} and is conditioned on
+ * the {@code _version} it last saw, so two nodes writing the same game (no
+ * {@code drawsync.cluster.nodes}, or a request that missed the affinity redirect)
+ * cannot silently overwrite each other: the loser gives up its copy and reads
+ * the stored one again, and an owner seeing a newer version in the change stream
+ * does the same.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.registry.type", havingValue = "mongo")
+public class MongoGameRegistry implements GameRegistry {
+
+    public static final String COLLECTION = "live_games";
+
+    // Code 40573: change streams need a replica set or sharded cluster
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+
+    static final String VERSION = "_version";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private GameAffinity gameAffinity;
+
+    @Value("${drawsync.registry.near-cache-ttl-ms:2000}")
+    private long nearCacheTtlMs = 2000;
+
+    private record Cached(Game game, long loadedAt) {
+    }
+
+    private final Map<String, Game> owned = new ConcurrentHashMap<>();
+    // Last version this node wrote of each owned game
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Map<String, Cached> nearCache = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+    private volatile MongoCursor<ChangeStreamDocument<Document>> changeStream;
+
+    @PostConstruct
+    public void start() {
+        try {
+            mongoTemplate.indexOps(COLLECTION).createIndex(new Index().on("status", Sort.Direction.ASC).named("status"));
+        } catch (Exception e) {
+            System.err.println("Error creating index on " + COLLECTION + ": " + e.getMessage());
+        }
+        Thread watcher = new Thread(this::watch, "game-registry-changes");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public Game get(String gameCode) {
+        Game game = owned.get(gameCode);
+        if (game != null) {
+            return game;
+        }
+        Cached cached = nearCache.get(gameCode);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt() < nearCacheTtlMs) {
+            return cached.game();
+        }
+        try {
+            game = mongoTemplate.findById(gameCode, Game.class, COLLECTION);
+        } catch (Exception e) {
+            System.err.println("Error reading game " + gameCode + " from registry: " + e.getMessage());
+            return cached != null ? cached.game() : null;
+        }
+        nearCache.put(gameCode, new Cached(game, now));
+        return game;
+    }
+
+    @Override
+    public void put(Game game) {
+        String gameCode = game.getGameCode();
+        boolean own = gameAffinity.isLocal(gameCode) && game.getStatus() != GameStatus.ABORTED;
+        Write outcome;
+        // One write of a game at a time on this node, so its versions follow each other
+        synchronized (game) {
+            Long known = versions.get(gameCode);
+            long expected = known != null ? known : storedVersion(gameCode);
+            if (own) {
+                // Recorded first, so the change stream recognizes the write as ours
+                versions.put(gameCode, expected + 1);
+                owned.put(gameCode, game);
+            }
+            outcome = write(game, expected);
+            if (outcome != Write.WRITTEN || !own) {
+                // After a failure it is unknown whether the write was stored, the next put reads the version again
+                versions.remove(gameCode);
+            }
+            if (outcome == Write.CONFLICT || !own) {
+                owned.remove(gameCode, game);
+            }
+        }
+        if (outcome == Write.CONFLICT) {
+            // Another node wrote the game meanwhile: drop this copy, the next read gets theirs
+            nearCache.remove(gameCode);
+            return;
+        }
+        if (own) {
+            nearCache.remove(gameCode);
+        } else {
+            nearCache.put(gameCode, new Cached(game, System.currentTimeMillis()));
+        }
+        listeners.forEach(listener -> listener.gameUpdated(game));
+    }
+
+    private enum Write { WRITTEN, CONFLICT, FAILED }
+
+    // Sets every field of the game if the stored version is still the expected one (0: not stored yet)
+    private Write write(Game game, long expected) {
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(game, fields);
+        Update update = new Update();
+        fields.forEach((field, value) -> {
+            if (!"_id".equals(field)) {
+                update.set(field, value);
+            }
+        });
+        update.set(VERSION, expected + 1);
+        Query current = new Query(Criteria.where("_id").is(game.getGameCode())
+                .and(VERSION).is(expected == 0 ? null : expected));
+        try {
+            UpdateResult result = expected == 0
+                    ? mongoTemplate.upsert(current, update, COLLECTION)
+                    : mongoTemplate.updateFirst(current, update, COLLECTION);
+            if (result.getMatchedCount() > 0 || result.getUpsertedId() != null) {
+                return Write.WRITTEN;
+            }
+        } catch (DuplicateKeyException e) {
+            // Inserted by another node first
+        } catch (Exception e) {
+            System.err.println("Error writing game " + game.getGameCode() + " to registry: " + e.getMessage());
+            return Write.FAILED;
+        }
+        System.err.println("Game " + game.getGameCode() + " was changed by another node, not overwriting it");
+        return Write.CONFLICT;
+    }
+
+    private long storedVersion(String gameCode) {
+        try {
+            Query query = new Query(Criteria.where("_id").is(gameCode));
+            query.fields().include(VERSION);
+            Document stored = mongoTemplate.findOne(query, Document.class, COLLECTION);
+            return version(stored);
+        } catch (Exception e) {
+            System.err.println("Error reading version of game " + gameCode + " from registry: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static long version(Document document) {
+        Object version = document != null ? document.get(VERSION) : null;
+        return version instanceof Number number ? number.longValue() : 0;
+    }
+
+    @Override
+    public void release(String gameCode) {
+        Game game = owned.get(gameCode);
+        if (game == null || game.getStatus() != GameStatus.FINISHED) {
+            return;
+        }
+        synchronized (game) {
+            owned.remove(gameCode, game);
+            versions.remove(gameCode);
+        }
+        // Served like any other stored game from now on
+        nearCache.put(gameCode, new Cached(game, System.currentTimeMillis()));
+    }
+
+    @Override
+    public Game remove(String gameCode) {
+        Game game = owned.remove(gameCode);
+        versions.remove(gameCode);
+        if (game == null) {
+            game = get(gameCode);
+        }
+        nearCache.remove(gameCode);
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(gameCode)), COLLECTION);
+        } catch (Exception e) {
+            System.err.println("Error removing game " + gameCode + " from registry: " + e.getMessage());
+        }
+        if (game != null) {
+            listeners.forEach(listener -> listener.gameRemoved(gameCode));
+        }
+        return game;
+    }
+
+    @Override
+    public List<Game> findByStatus(GameStatus status) {
+        try {
+            List<Game> games = mongoTemplate.find(new Query(Criteria.where("status").is(status)), Game.class, COLLECTION);
+            // Prefer the in-memory instance of games owned here, it may be ahead of the stored copy
+            return games.stream()
+                    .map(game -> owned.getOrDefault(game.getGameCode(), game))
+                    .filter(game -> game.getStatus() == status)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            System.err.println("Error listing games from registry: " + e.getMessage());
+            return owned.values().stream()
+                    .filter(game -> game.getStatus() == status)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void watch() {
+        while (running) {
+            try (MongoCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate.getCollection(COLLECTION)
+                    .watch()
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .iterator()) {
+                changeStream = cursor;
+                System.out.println("Following changes of " + COLLECTION);
+                while (running && cursor.hasNext()) {
+                    apply(cursor.next());
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    System.out.println("Change streams not available, registry near cache expires after "
+                            + nearCacheTtlMs + " ms");
+                    return;
+                }
+                retryLater(e);
+            } catch (Exception e) {
+                retryLater(e);
+            }
+        }
+    }
+
+    void apply(ChangeStreamDocument<Document> change) {
+        if (change.getDocumentKey() == null || !change.getDocumentKey().isString("_id")) {
+            return;
+        }
+        String gameCode = change.getDocumentKey().getString("_id").getValue();
+        Document document = change.getFullDocument();
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                if (document == null) {
+                    return; // Deleted before the lookup, a delete event follows
+                }
+                if (owned.containsKey(gameCode)) {
+                    Long ours = versions.get(gameCode);
+                    if (ours == null || version(document) <= ours) {
+                        return; // Our own write
+                    }
+                    owned.remove(gameCode);
+                    versions.remove(gameCode);
+                    System.err.println("Game " + gameCode + " was changed by another node, using its copy");
+                }
+                Game game = mongoTemplate.getConverter().read(Game.class, document);
+                nearCache.put(gameCode, new Cached(game, System.currentTimeMillis()));
+                listeners.forEach(listener -> listener.gameUpdated(game));
+            }
+            case DELETE -> {
+                owned.remove(gameCode);
+                versions.remove(gameCode);
+                nearCache.remove(gameCode);
+                listeners.forEach(listener -> listener.gameRemoved(gameCode));
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void retryLater(Exception e) {
+        if (!running) {
+            return;
+        }
+        System.err.println("Error following changes of " + COLLECTION + ": " + e.getMessage());
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        MongoCursor<ChangeStreamDocument<Document>> cursor = changeStream;
+        if (cursor != null) {
+            try {
+                cursor.close();
+            } catch (Exception e) {
+                // Closing while the watcher is blocked on it
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.edu.eci.DrawSync.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking client for the chat completions API.
+ *
+ * <p>Requests go through one shared {@link HttpClient}, which negotiates HTTP/2
+ * where the server offers it and otherwise keeps HTTP/1.1 connections alive for
+ * reuse. A call returns as soon as the request is sent: no thread waits for the
+ * answer, so the number of evaluations in flight is not bounded by a pool. The
+ * few client threads only parse responses and complete the futures.</p>
+ *
+ * <p>Every call goes through the {@link OpenAIGuard}, which rate limits, retries
+ * and short-circuits it while the API is failing.</p>
+ */
+@Service
+public class OpenAIClient {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The API answered with a status other than 2xx.
+     */
+    public static class ApiStatusException extends IllegalStateException {
+
+        private final int status;
+
+        public ApiStatusException(int status) {
+            super("OpenAI API answered " + status);
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+
+    @Autowired
+    private OpenAIGuard guard;
+
+    @Value("${openai.api.key:}")
+    private String apiKey = "";
+
+    @Value("${drawsync.openai.url:https://api.openai.com/v1/chat/completions}")
+    private String url = "https://api.openai.com/v1/chat/completions";
+
+    @Value("${drawsync.openai.connect-timeout-ms:5000}")
+    private long connectTimeoutMs = 5000;
+
+    // Time to the response headers of one request, the connection included
+    @Value("${drawsync.openai.request-timeout-ms:30000}")
+    private long requestTimeoutMs = 30000;
+
+    @Value("${drawsync.openai.client-threads:2}")
+    private int clientThreads = 2;
+
+    private ExecutorService executor;
+    private HttpClient httpClient;
+
+    /**
+     * Sends a chat completion request and returns the content of the first choice.
+     * The future fails when the API cannot be reached, answers with an error status
+     * or returns no choices.
+     */
+    public CompletableFuture<String> complete(ObjectNode requestBody) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(requestTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(requestBody)))
+                    .build();
+        } catch (IOException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // The request is immutable, so retries send the same one again
+        return guard.execute(() -> httpClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(OpenAIClient::content));
+    }
+
+    private static String content(HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new ApiStatusException(response.statusCode());
+        }
+        JsonNode body;
+        try {
+            body = MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        JsonNode content = body.path("choices").path(0).path("message").path("content");
+        if (!content.isTextual()) {
+            throw new IllegalStateException("OpenAI API returned no choices");
+        }
+        return content.asText();
+    }
+
+    // Built on first use so the configured timeouts are in place
+    private synchronized HttpClient httpClient() {
+        if (httpClient == null) {
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(Math.max(1, clientThreads), r -> {
+                Thread thread = new Thread(r, "openai-client-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .executor(executor)
+                    .build();
+        }
+        return httpClient;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.edu.eci.DrawSync.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Scores drawings with the OpenAI vision model.
+ */
+@Service
+@ConditionalOnProperty(name = "drawsync.evaluation.engine", havingValue = "openai", matchIfMissing = true)
+public class OpenAIDrawingEvaluator implements DrawingEvaluator {
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Override
+    public CompletableFuture<Integer> evaluate(String dataUrl, String word) {
+        return openAIService.evaluateDrawingAsync(dataUrl, word);
+    }
+
+    @Override
+    public List<CompletableFuture<Integer>> evaluateAll(List<String> dataUrls, String word) {
+        return openAIService.evaluateDrawingsAsync(dataUrls, word);
+    }
+}
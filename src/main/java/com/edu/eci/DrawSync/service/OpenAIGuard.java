@@ -0,0 +1,273 @@
+package com.edu.eci.DrawSync.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps calls to the OpenAI API within quota and fails them fast while the
+ * provider is down, so a round never waits on a chain of timeouts.
+ *
+ * <ul>
+ *   <li>A token bucket spaces calls to {@code ratePerSecond}, with bursts of up to
+ *   {@code burst}. A call that would wait longer than {@code maxWaitMs} for a
+ *   token is rejected instead.</li>
+ *   <li>A circuit breaker opens after {@code failureThreshold} failures in a row and
+ *   rejects every call for {@code openMs}; then a single trial call decides whether
+ *   it closes again.</li>
+ *   <li>Timeouts, connection errors, 429 and 5xx answers are retried with jittered
+ *   exponential backoff, up to {@code maxAttempts} attempts. Retries draw from a
+ *   budget that only refills with new calls, so an outage cannot multiply the load.</li>
+ * </ul>
+ *
+ * <p>Rejected calls fail with {@link RejectedException}; callers fall back as they
+ * would on any other failure.</p>
+ */
+@Service
+public class OpenAIGuard {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /**
+     * A call that was not attempted, because the circuit is open or no token came in time.
+     */
+    public static class RejectedException extends RuntimeException {
+        public RejectedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    @Value("${drawsync.openai.rate-per-second:8}")
+    private double ratePerSecond = 8;
+
+    @Value("${drawsync.openai.burst:16}")
+    private int burst = 16;
+
+    @Value("${drawsync.openai.rate-limit.max-wait-ms:1000}")
+    private long maxWaitMs = 1000;
+
+    @Value("${drawsync.openai.breaker.failure-threshold:5}")
+    private int failureThreshold = 5;
+
+    @Value("${drawsync.openai.breaker.open-ms:30000}")
+    private long openMs = 30000;
+
+    @Value("${drawsync.openai.retry.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${drawsync.openai.retry.backoff-ms:200}")
+    private long backoffMs = 200;
+
+    // Share of calls that may be retried once the initial reserve is spent
+    @Value("${drawsync.openai.retry.budget-ratio:0.2}")
+    private double retryBudgetRatio = 0.2;
+
+    @Value("${drawsync.openai.retry.budget-reserve:10}")
+    private int retryBudgetReserve = 10;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Guarded by this
+    private double tokens = Double.NaN;
+    private long tokensAt;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private double retryBalance = Double.NaN;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("drawsync.openai.breaker.state", this, guard -> guard.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 half open, 2 open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} under the rate limit and the circuit breaker, retrying it
+     * while the failure is transient and the budget allows.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (this) {
+            retryBalance = Math.min(retryBalance() + retryBudgetRatio, retryBudgetReserve);
+        }
+        attempt(call, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    private <T> void attempt(Supplier<CompletableFuture<T>> call, int attempt, long start, CompletableFuture<T> result) {
+        if (!permitCall()) {
+            count("short_circuited");
+            result.completeExceptionally(new RejectedException("OpenAI circuit is open"));
+            return;
+        }
+        long waitNanos = reserveToken();
+        if (waitNanos < 0) {
+            releaseTrial();
+            count("rate_limited");
+            result.completeExceptionally(new RejectedException("OpenAI rate limit reached"));
+            return;
+        }
+        Runnable send = () -> {
+            CompletableFuture<T> response;
+            try {
+                response = call.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((value, e) -> {
+                if (e == null) {
+                    onSuccess();
+                    meterRegistry.timer("drawsync.openai.latency").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    count("success");
+                    result.complete(value);
+                    return;
+                }
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                boolean retryable = isRetryable(cause);
+                if (retryable) {
+                    onFailure();
+                } else {
+                    // The API answered; a bad request or an unreadable answer says nothing about its health
+                    releaseTrial();
+                }
+                if (attempt < maxAttempts && retryable && withdrawRetry()) {
+                    meterRegistry.counter("drawsync.openai.retries").increment();
+                    long backoff = backoffMs << (attempt - 1);
+                    long delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                            .execute(() -> attempt(call, attempt + 1, start, result));
+                    return;
+                }
+                count("failure");
+                result.completeExceptionally(cause);
+            });
+        };
+        if (waitNanos == 0) {
+            send.run();
+        } else {
+            CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS).execute(send);
+        }
+    }
+
+    static boolean isRetryable(Throwable cause) {
+        if (cause instanceof OpenAIClient.ApiStatusException status) {
+            return status.status() == 429 || status.status() >= 500;
+        }
+        // Connection failures and HttpTimeoutException
+        return cause instanceof IOException;
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= TimeUnit.MILLISECONDS.toNanos(openMs)) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean permitCall() {
+        State current = state();
+        if (current != state) {
+            transition(current);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = System.nanoTime();
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            System.err.println("OpenAI circuit opened after " + consecutiveFailures + " failures");
+        } else {
+            System.out.println("OpenAI circuit " + next.name().toLowerCase().replace('_', ' '));
+        }
+        state = next;
+        meterRegistry.counter("drawsync.openai.breaker.transitions", "state", next.name().toLowerCase()).increment();
+    }
+
+    /**
+     * Takes a token, returning how long to wait before using it, or -1 when that
+     * would be longer than {@code maxWaitMs}. Tokens may go negative: each waiting
+     * call holds its place in line.
+     */
+    private synchronized long reserveToken() {
+        long now = System.nanoTime();
+        if (Double.isNaN(tokens)) {
+            tokens = burst;
+        } else {
+            tokens = Math.min(burst, tokens + (now - tokensAt) * ratePerSecond / 1_000_000_000d);
+        }
+        tokensAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitNanos = (long) Math.ceil((1 - tokens) / ratePerSecond * 1_000_000_000d);
+        if (waitNanos > TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    private synchronized boolean withdrawRetry() {
+        if (retryBalance() < 1) {
+            return false;
+        }
+        retryBalance -= 1;
+        return true;
+    }
+
+    private double retryBalance() {
+        if (Double.isNaN(retryBalance)) {
+            retryBalance = retryBudgetReserve;
+        }
+        return retryBalance;
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("drawsync.openai.calls", "outcome", outcome).increment();
+    }
+
+    MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+}
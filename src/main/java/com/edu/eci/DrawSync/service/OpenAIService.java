@@ -1,121 +1,318 @@
 package com.edu.eci.DrawSync.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class OpenAIService {
 
-    @Value("${openai.api.key}")
-    private String apiKey;
+    // Fixed parts of each request, built once; calls copy them and add the message
+    private static final ObjectNode WORDS_REQUEST = OpenAIClient.MAPPER.createObjectNode()
+            .put("model", "gpt-4o-mini")
+            .put("temperature", 1.0);
+    private static final ObjectNode EVALUATION_REQUEST = OpenAIClient.MAPPER.createObjectNode()
+            .put("model", "gpt-4o")
+            .put("max_tokens", 10);
+    private static final ObjectNode BATCH_EVALUATION_REQUEST = OpenAIClient.MAPPER.createObjectNode()
+            .put("model", "gpt-4o");
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
+    static {
+        BATCH_EVALUATION_REQUEST.putObject("response_format").put("type", "json_object");
+    }
+
+    @Autowired
+    private OpenAIClient client;
+
+    // Drawings scored together in one request by evaluateDrawingsAsync
+    @Value("${drawsync.evaluation.batch-size:8}")
+    private int batchSize = 8;
+
+    @Value("${drawsync.evaluation.cache-size:10000}")
+    private int evaluationCacheSize = 10000;
+
+    @Value("${drawsync.evaluation.cache-ttl-ms:3600000}")
+    private long evaluationCacheTtlMs = 3600000;
+
+    // Share of pixels that may differ from the background for a canvas to count as blank
+    @Value("${drawsync.evaluation.blank-ink-ratio:0.001}")
+    private double blankInkRatio = 0.001;
+
+    private EvaluationCache evaluationCache = new EvaluationCache(10000, 3600000);
+
+    @PostConstruct
+    public void configureEvaluationCache() {
+        evaluationCache = new EvaluationCache(evaluationCacheSize, evaluationCacheTtlMs);
+    }
 
-    public String getRandomWord() {
+    /**
+     * Asks for {@code count} different words in a single completion, one per line.
+     * Returns an empty list when the API cannot be reached so the caller can fall
+     * back to its own words.
+     */
+    public List<String> getRandomWords(int count) {
+        ObjectNode request = WORDS_REQUEST.deepCopy();
+        request.withArray("messages").addObject()
+                .put("role", "user")
+                .put("content", "Genera " + count + " palabras distintas en español que sean sustantivos concretos (objetos físicos) fáciles de dibujar para un juego de Pictionary. Ejemplos: 'Bicicleta', 'Pizza', 'Castillo'. Responde con una palabra por línea, sin numeración, puntos ni explicaciones.");
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content",
-                    "Genera una única palabra en español que sea un sustantivo concreto (objeto físico) fácil de dibujar para un juego de Pictionary. Ejemplos: 'Bicicleta', 'Pizza', 'Castillo'. Solo responde con la palabra, sin puntos ni explicaciones.");
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", "gpt-4o-mini");
-            requestBody.put("messages", Collections.singletonList(message));
-            requestBody.put("temperature", 0.9);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    OPENAI_API_URL,
-                    org.springframework.http.HttpMethod.POST,
-                    request,
-                    new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {
-                    });
-
-            if (response.getBody() != null) {
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
-                if (choices != null && !choices.isEmpty()) {
-                    Map<String, Object> messageResponse = (Map<String, Object>) choices.get(0).get("message");
-                    String content = (String) messageResponse.get("content");
-                    return content.trim().replace(".", "");
-                }
-            }
+            return parseWords(client.complete(request).join());
         } catch (Exception e) {
-            System.err.println("Error calling OpenAI API (getRandomWord): " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Error calling OpenAI API (getRandomWords): " + e.getMessage());
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Splits a completion into single words, dropping numbering, bullets and punctuation.
+     */
+    static List<String> parseWords(String content) {
+        List<String> words = new ArrayList<>();
+        if (content == null) {
+            return words;
+        }
+        for (String line : content.split("[\\n,;]+")) {
+            String word = line.trim()
+                    .replaceAll("^\\d+[.)]?\\s*", "")
+                    .replaceAll("^[-*•]\\s*", "")
+                    .replaceAll("[.'\"]", "")
+                    .trim();
+            if (!word.isEmpty() && !word.contains(" ")) {
+                words.add(word);
+            }
         }
-        // Fallback list
-        String[] fallbacks = { "Casa", "Gato", "Perro", "Sol", "Flor", "Carro", "Avion", "Pelota", "Arbol", "Libro" };
-        return fallbacks[new Random().nextInt(fallbacks.length)];
+        return words;
     }
 
+    /**
+     * Scores how well the drawing matches the word, from 0 to 100. Blank canvases
+     * score 0 and images already scored for the word reuse that score, neither
+     * with an API call. When the API cannot score it, a random fallback score is returned.
+     */
     public int evaluateDrawing(String base64Image, String word) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            Map<String, Object> textContent = new HashMap<>();
-            textContent.put("type", "text");
-            textContent.put("text", "Evalúa qué tan bien este dibujo representa la palabra: '" + word
-                    + "'. Asigna un puntaje de 0 a 100 basándote en el parecido, los detalles y la creatividad. Sé crítico y usa todo el rango de 0 a 100 para diferenciar buenos dibujos de malos. Responde SOLO con el número entero, nada más.");
-
-            Map<String, Object> imageContent = new HashMap<>();
-            imageContent.put("type", "image_url");
-            Map<String, String> imageUrl = new HashMap<>();
-            imageUrl.put("url", base64Image);
-            imageContent.put("image_url", imageUrl);
-
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", Arrays.asList(textContent, imageContent));
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", "gpt-4o");
-            requestBody.put("messages", Collections.singletonList(message));
-            requestBody.put("max_tokens", 10);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    OPENAI_API_URL,
-                    org.springframework.http.HttpMethod.POST,
-                    request,
-                    new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {
-                    });
-
-            if (response.getBody() != null) {
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
-                if (choices != null && !choices.isEmpty()) {
-                    Map<String, Object> messageResponse = (Map<String, Object>) choices.get(0).get("message");
-                    String content = (String) messageResponse.get("content");
-                    System.out.println("OpenAI Response for drawing: " + content);
-                    try {
-                        return Integer.parseInt(content.trim());
-                    } catch (NumberFormatException e) {
-                        System.err.println("Failed to parse score from OpenAI: " + content);
-                        return 0;
-                    }
+            return evaluateDrawingAsync(base64Image, word).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DrawingEvaluator.FallbackScore fallback) {
+                return fallback.getScore();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #evaluateDrawing}, without holding the calling thread while the
+     * API answers. When the API cannot score the drawing, the future completes
+     * exceptionally with a {@link DrawingEvaluator.FallbackScore}.
+     */
+    public CompletableFuture<Integer> evaluateDrawingAsync(String base64Image, String word) {
+        Precheck precheck = precheck(base64Image, word);
+        if (precheck.score() != null) {
+            return CompletableFuture.completedFuture(precheck.score());
+        }
+        return askScore(base64Image, word, precheck.imageHash());
+    }
+
+    /**
+     * Scores several drawings of the same word, returning the scores in the order of
+     * {@code base64Images}. Drawings that need the API are sent {@code batchSize} per
+     * request and scored side by side; a drawing the answer leaves out or scores
+     * with something other than an integer from 0 to 100 is evaluated on its own.
+     * Each future completes like the one of {@link #evaluateDrawingAsync}.
+     */
+    public List<CompletableFuture<Integer>> evaluateDrawingsAsync(List<String> base64Images, String word) {
+        List<CompletableFuture<Integer>> scores = new ArrayList<>(base64Images.size());
+        List<Integer> toAsk = new ArrayList<>();
+        String[] hashes = new String[base64Images.size()];
+        for (int i = 0; i < base64Images.size(); i++) {
+            Precheck precheck = precheck(base64Images.get(i), word);
+            hashes[i] = precheck.imageHash();
+            scores.add(precheck.score() != null ? CompletableFuture.completedFuture(precheck.score()) : null);
+            if (precheck.score() == null) {
+                toAsk.add(i);
+            }
+        }
+
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < toAsk.size(); from += size) {
+            List<Integer> chunk = toAsk.subList(from, Math.min(from + size, toAsk.size()));
+            if (chunk.size() == 1) {
+                int index = chunk.get(0);
+                scores.set(index, askScore(base64Images.get(index), word, hashes[index]));
+                continue;
+            }
+            List<CompletableFuture<Integer>> chunkScores = askScores(chunk, base64Images, hashes, word);
+            for (int i = 0; i < chunk.size(); i++) {
+                scores.set(chunk.get(i), chunkScores.get(i));
+            }
+        }
+
+        return scores;
+    }
+
+    // A score known without asking the API, or else the hash to cache the API score under
+    private record Precheck(Integer score, String imageHash) {
+    }
+
+    private Precheck precheck(String base64Image, String word) {
+        try {
+            DrawingStore.Drawing drawing = DrawingStore.decodeDataUrl(base64Image);
+            if (BlankCanvas.isBlank(drawing.data(), blankInkRatio)) {
+                System.out.println("Blank drawing for '" + word + "', scored 0 without evaluation");
+                return new Precheck(0, null);
+            }
+            String imageHash = DrawingStore.contentId(drawing.data());
+            Integer cached = evaluationCache.get(imageHash, word);
+            if (cached != null) {
+                System.out.println("Reusing score " + cached + " of drawing " + imageHash + " for '" + word + "'");
+            }
+            return new Precheck(cached, imageHash);
+        } catch (IllegalArgumentException e) {
+            // Not a data URL we can read; let the API judge it
+            return new Precheck(null, null);
+        }
+    }
+
+    private CompletableFuture<Integer> askScore(String base64Image, String word, String imageHash) {
+        // Only the word and the image change between requests
+        ObjectNode request = EVALUATION_REQUEST.deepCopy();
+        ArrayNode content = request.withArray("messages").addObject()
+                .put("role", "user")
+                .putArray("content");
+        content.addObject()
+                .put("type", "text")
+                .put("text", "Evalúa qué tan bien este dibujo representa la palabra: '" + word
+                        + "'. Asigna un puntaje de 0 a 100 basándote en el parecido, los detalles y la creatividad. Sé crítico y usa todo el rango de 0 a 100 para diferenciar buenos dibujos de malos. Responde SOLO con el número entero, nada más.");
+        content.addObject()
+                .put("type", "image_url")
+                .putObject("image_url").put("url", base64Image);
+
+        return client.complete(request).handle((answer, e) -> {
+            if (e != null) {
+                System.err.println("Error calling OpenAI API (evaluateDrawing): " + e.getMessage());
+                System.out.println("Using fallback random score due to API error.");
+                throw new DrawingEvaluator.FallbackScore(fallbackScore(), "OpenAI API error: " + e.getMessage());
+            }
+            System.out.println("OpenAI Response for drawing: " + answer);
+            try {
+                int score = Integer.parseInt(answer.trim());
+                // Only real answers are kept; fallback scores are not
+                if (imageHash != null) {
+                    evaluationCache.put(imageHash, word, score);
                 }
+                return score;
+            } catch (NumberFormatException ex) {
+                System.err.println("Failed to parse score from OpenAI: " + answer);
+                throw new DrawingEvaluator.FallbackScore(0, "Unreadable score from OpenAI: " + answer);
+            }
+        });
+    }
+
+    private List<CompletableFuture<Integer>> askScores(List<Integer> chunk, List<String> base64Images,
+            String[] hashes, String word) {
+        ObjectNode request = BATCH_EVALUATION_REQUEST.deepCopy();
+        request.put("max_tokens", 20 + 15 * chunk.size());
+        ArrayNode content = request.withArray("messages").addObject()
+                .put("role", "user")
+                .putArray("content");
+        content.addObject()
+                .put("type", "text")
+                .put("text", "Estos " + chunk.size() + " dibujos, numerados del 1 al " + chunk.size()
+                        + " en orden, intentan representar la palabra: '" + word
+                        + "'. Asigna a cada uno un puntaje de 0 a 100 basándote en el parecido, los detalles y la creatividad, comparándolos entre sí. Sé crítico y usa todo el rango de 0 a 100. Responde SOLO con JSON de la forma {\"scores\": [{\"drawing\": 1, \"score\": 0}]}, con una entrada por dibujo.");
+        for (int index : chunk) {
+            content.addObject()
+                    .put("type", "image_url")
+                    .putObject("image_url").put("url", base64Images.get(index));
+        }
+
+        CompletableFuture<Map<Integer, Integer>> answered = client.complete(request).handle((answer, e) -> {
+            if (e != null) {
+                System.err.println("Error calling OpenAI API (evaluateDrawings): " + e.getMessage());
+                return null;
+            }
+            System.out.println("OpenAI Response for " + chunk.size() + " drawings: " + answer);
+            return parseScores(answer, chunk.size());
+        });
+
+        List<CompletableFuture<Integer>> scores = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunk.get(i);
+            int number = i + 1;
+            scores.add(answered.thenCompose(parsed -> {
+                if (parsed == null) {
+                    // The API failed for the whole batch; asking again per drawing would only add load
+                    return CompletableFuture.failedFuture(
+                            new DrawingEvaluator.FallbackScore(fallbackScore(), "OpenAI API error for the batch"));
+                }
+                Integer score = parsed.get(number);
+                if (score == null) {
+                    System.err.println("No valid score for drawing " + number + " of the batch, evaluating it alone");
+                    return askScore(base64Images.get(index), word, hashes[index]);
+                }
+                // Not cached: the score is relative to the rest of this batch, not one to reuse elsewhere
+                return CompletableFuture.completedFuture(score);
+            }));
+        }
+        return scores;
+    }
+
+    /**
+     * Reads the scores of a batch answer, by drawing number from 1 to {@code count}.
+     * Entries with an unknown number, a repeated number or a score that is not an
+     * integer from 0 to 100 are left out.
+     */
+    static Map<Integer, Integer> parseScores(String answer, int count) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        if (answer == null) {
+            return scores;
+        }
+        // Tolerates text or a code fence around the JSON
+        int start = answer.indexOf('{');
+        int end = answer.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            return scores;
+        }
+        JsonNode entries;
+        try {
+            entries = OpenAIClient.MAPPER.readTree(answer.substring(start, end + 1)).path("scores");
+        } catch (IOException e) {
+            return scores;
+        }
+        Set<Integer> repeated = new HashSet<>();
+        for (JsonNode entry : entries) {
+            JsonNode number = entry.path("drawing");
+            JsonNode score = entry.path("score");
+            if (!number.isIntegralNumber() || !score.isIntegralNumber()
+                    || number.asInt() < 1 || number.asInt() > count
+                    || score.asInt() < 0 || score.asInt() > 100) {
+                continue;
+            }
+            if (scores.putIfAbsent(number.asInt(), score.asInt()) != null) {
+                repeated.add(number.asInt());
             }
-        } catch (Exception e) {
-            System.err.println("Error calling OpenAI API (evaluateDrawing): " + e.getMessage());
-            // Fallback for when API is down or quota exceeded
-            System.out.println("Using fallback random score due to API error.");
-            return 40 + new Random().nextInt(56); // Random score between 40 and 95
         }
-        return 0; // Should not be reached given the fallback above
+        // Two scores for one drawing: neither can be trusted
+        scores.keySet().removeAll(repeated);
+        return scores;
+    }
+
+    private static int fallbackScore() {
+        // For when the API is down or quota exceeded
+        return 40 + ThreadLocalRandom.current().nextInt(56); // Random score between 40 and 95
+    }
+
+    EvaluationCache getEvaluationCache() {
+        return evaluationCache;
     }
 }
@@ -0,0 +1,126 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Stroke;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces outgoing strokes per game so a fast drawer produces one frame per tick
+ * on {@code /topic/{gameCode}/strokes} instead of one frame per segment.
+ *
+ * <p>Every {@code tickMs} the strokes queued for each game since the previous tick
+ * are sent as a JSON array of at most {@code maxBatch} strokes. With a tick of 0
+ * each stroke is sent as it arrives, still as an array, of one, so clients read
+ * a single shape. A game with nothing queued at a tick is forgotten, so games that
+ * end elsewhere, on a node that never gets {@link #close}, do not stay here.</p>
+ */
+@Service
+public class StrokeBroadcaster {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${drawsync.strokes.broadcast.tick-ms:33}")
+    private long tickMs = 33;
+
+    @Value("${drawsync.strokes.broadcast.max-batch:64}")
+    private int maxBatch = 64;
+
+    private final Map<String, Queue<Stroke>> pending = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stroke-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        if (tickMs > 0) {
+            ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void publish(String gameCode, Stroke stroke) {
+        if (tickMs <= 0) {
+            messagingTemplate.convertAndSend(destination(gameCode), List.of(stroke));
+            return;
+        }
+        // Atomic with the removal of an empty queue in tick, so the stroke never lands in a dropped queue
+        pending.compute(gameCode, (k, queue) -> {
+            Queue<Stroke> strokes = queue != null ? queue : new ConcurrentLinkedQueue<>();
+            strokes.add(stroke);
+            return strokes;
+        });
+        dirty.add(gameCode);
+    }
+
+    /**
+     * Sends whatever is still queued for a game and forgets it. Called when the game ends.
+     */
+    public void close(String gameCode) {
+        dirty.remove(gameCode);
+        Queue<Stroke> queue = pending.remove(gameCode);
+        if (queue != null) {
+            send(gameCode, queue);
+        }
+    }
+
+    void tick() {
+        Iterator<String> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            String gameCode = iterator.next();
+            iterator.remove();
+            Queue<Stroke> queue = pending.get(gameCode);
+            if (queue == null) {
+                continue;
+            }
+            try {
+                send(gameCode, queue);
+            } catch (Exception e) {
+                System.err.println("Error broadcasting strokes for game " + gameCode + ": " + e.getMessage());
+            }
+            pending.computeIfPresent(gameCode, (k, strokes) -> strokes.isEmpty() ? null : strokes);
+        }
+    }
+
+    private void send(String gameCode, Queue<Stroke> queue) {
+        List<Stroke> batch = new ArrayList<>();
+        Stroke stroke;
+        while ((stroke = queue.poll()) != null) {
+            batch.add(stroke);
+            if (batch.size() >= maxBatch) {
+                messagingTemplate.convertAndSend(destination(gameCode), batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            messagingTemplate.convertAndSend(destination(gameCode), batch);
+        }
+    }
+
+    int pendingGames() {
+        return pending.size();
+    }
+
+    private String destination(String gameCode) {
+        return "/topic/" + gameCode + "/strokes";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,269 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Stroke;
+import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind journal for drawing strokes.
+ *
+ * <p>Strokes are buffered per game and written to MongoDB in bulk inserts, either
+ * when a game's buffer reaches {@code batchSize} or every {@code flushIntervalMs}.
+ * The total number of buffered strokes is bounded by {@code capacity}; when Mongo
+ * falls behind and the buffer is full, {@link #append(Stroke)} waits up to
+ * {@code offerTimeoutMs} for room and then writes the game's buffer out on the
+ * caller thread, the stroke last, so the producer is slowed down instead of
+ * strokes being dropped or stored ahead of the ones buffered before them.</p>
+ *
+ * <p>A stroke gets its id when it is buffered, so a batch that is retried after a
+ * failed insert keeps its ids: retries insert unordered and count the strokes a
+ * previous attempt already stored as written.</p>
+ *
+ * <p>A game's buffer stays mapped until it has been written out, so a batch that
+ * failed is retried by the periodic flush even after the game was closed. Only
+ * one thread drains a buffer at a time, and strokes for a closed game are dropped.</p>
+ */
+@Service
+public class StrokeJournal {
+
+    @Autowired
+    private StrokeRepository strokeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${drawsync.strokes.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${drawsync.strokes.flush-interval-ms:250}")
+    private long flushIntervalMs = 250;
+
+    @Value("${drawsync.strokes.capacity:20000}")
+    private int capacity = 20000;
+
+    @Value("${drawsync.strokes.offer-timeout-ms:50}")
+    private long offerTimeoutMs = 50;
+
+    // How long a closed game is remembered, so late strokes for it are dropped
+    private static final long CLOSED_RETENTION_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final Map<String, GameBuffer> buffers = new ConcurrentHashMap<>();
+    // Closed games by the time they were closed
+    private final Map<String, Long> closed = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stroke-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Semaphore permits;
+    // Strokes buffered without a permit because the buffer was full, released before permits
+    private final AtomicInteger overdraft = new AtomicInteger();
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(capacity);
+        flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a stroke for persistence. Returns as soon as the stroke is buffered.
+     */
+    public void append(Stroke stroke) {
+        String gameCode = stroke.getSessionId();
+        if (closed.containsKey(gameCode)) {
+            return; // Still in flight when the game ended
+        }
+        if (stroke.getCreatedAt() == null) {
+            stroke.setCreatedAt(new Date());
+        }
+        boolean acquired = acquirePermit();
+
+        // Added under the map entry's lock, so a closing game never removes a buffer holding it,
+        // and ids follow the order strokes are buffered in
+        AtomicBoolean added = new AtomicBoolean();
+        GameBuffer buffer = buffers.compute(gameCode, (k, existing) -> {
+            if (closed.containsKey(k)) {
+                return existing;
+            }
+            GameBuffer target = existing != null ? existing : new GameBuffer();
+            stroke.setId(new ObjectId().toHexString());
+            target.strokes.add(stroke);
+            target.size.incrementAndGet();
+            if (!acquired) {
+                overdraft.incrementAndGet();
+            }
+            added.set(true);
+            return target;
+        });
+        if (!added.get()) {
+            if (acquired) {
+                permits.release(); // Closed meanwhile
+            }
+            return;
+        }
+        if (!acquired) {
+            // Buffer is full: Mongo is lagging, so write this game out on the caller thread
+            drain(gameCode, buffer);
+            return;
+        }
+        if (buffer.size.get() >= batchSize && !flusher.isShutdown()
+                && buffer.flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                buffer.flushScheduled.set(false);
+                drain(gameCode, buffer);
+            });
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes every buffered stroke of a game. Called when a game finishes or is aborted.
+     */
+    public void flush(String gameCode) {
+        GameBuffer buffer = buffers.get(gameCode);
+        if (buffer != null) {
+            drain(gameCode, buffer);
+        }
+    }
+
+    /**
+     * Flushes and forgets the buffer of a game that has ended. Strokes that cannot
+     * be written now stay buffered for the periodic flush to retry.
+     */
+    public void close(String gameCode) {
+        closed.put(gameCode, System.currentTimeMillis());
+        GameBuffer buffer = buffers.get(gameCode);
+        if (buffer != null) {
+            drain(gameCode, buffer);
+        }
+    }
+
+    public void flushAll() {
+        buffers.forEach(this::drain);
+        long expired = System.currentTimeMillis() - CLOSED_RETENTION_MS;
+        closed.entrySet().removeIf(entry -> entry.getValue() < expired && !buffers.containsKey(entry.getKey()));
+    }
+
+    /**
+     * Number of strokes waiting to be written, across all games.
+     */
+    public int pending() {
+        return capacity - permits.availablePermits() + overdraft.get();
+    }
+
+    private void drain(String gameCode, GameBuffer buffer) {
+        buffer.lock.lock();
+        try {
+            List<Stroke> batch = new ArrayList<>(batchSize);
+            Stroke stroke;
+            while ((stroke = buffer.strokes.poll()) != null) {
+                batch.add(stroke);
+                if (batch.size() >= batchSize) {
+                    if (!write(gameCode, buffer, batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && !write(gameCode, buffer, batch)) {
+                return;
+            }
+            if (closed.containsKey(gameCode)) {
+                // Written out: forget the buffer, unless a stroke got in before the game closed
+                buffers.computeIfPresent(gameCode, (k, existing) -> existing.strokes.isEmpty() ? null : existing);
+            }
+        } finally {
+            buffer.lock.unlock();
+        }
+    }
+
+    private boolean write(String gameCode, GameBuffer buffer, List<Stroke> batch) {
+        try {
+            if (buffer.retrying) {
+                insertIgnoringStored(batch);
+            } else {
+                strokeRepository.insert(batch);
+            }
+            buffer.retrying = false;
+            buffer.size.addAndGet(-batch.size());
+            release(batch.size());
+            return true;
+        } catch (Exception e) {
+            // Put the batch back so the next flush retries it; permits stay held,
+            // which keeps backpressure on producers while Mongo is unavailable
+            System.err.println("Error writing " + batch.size() + " strokes for game " + gameCode + ": " + e.getMessage());
+            buffer.retrying = true;
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                buffer.strokes.addFirst(batch.get(i));
+            }
+            return false;
+        }
+    }
+
+    // Part of a failed insert may have been stored: insert the rest, skipping ids that already exist
+    private void insertIgnoringStored(List<Stroke> batch) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Stroke.class).insert(batch).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void release(int written) {
+        int owed = overdraft.getAndUpdate(value -> Math.max(0, value - written));
+        permits.release(written - Math.min(owed, written));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+        System.out.println("Stroke journal flushed on shutdown, pending: " + pending());
+    }
+
+    private static final class GameBuffer {
+        private final ConcurrentLinkedDeque<Stroke> strokes = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        // The last insert failed, so some of the buffered strokes may already be stored
+        private volatile boolean retrying;
+        // Held while draining, so two threads never write the same strokes
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+}
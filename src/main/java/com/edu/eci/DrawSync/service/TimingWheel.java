@@ -0,0 +1,174 @@
+package com.edu.eci.DrawSync.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel that runs many short timers from a single thread.
+ *
+ * <p>Timers are hashed into {@code slots} buckets of {@code tickMs} each; delays
+ * longer than one revolution wait the required number of rounds in their bucket.
+ * On every tick the wheel thread collects the timers of the current bucket that
+ * are due and hands them to the dispatcher as one batch, so thousands of games
+ * ticking in the same slot cost one task submission instead of one scheduled
+ * future each. A timer fires at most one tick after its deadline.</p>
+ */
+public class TimingWheel {
+
+    /**
+     * Handle of a scheduled timer.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Prevents the timer from running. Returns false when it already fired.
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<ArrayDeque<Timeout>> wheel;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Executor dispatcher;
+    private final Thread worker;
+    private final long startNanos = System.nanoTime();
+    private volatile boolean running = true;
+
+    // Only touched by the wheel thread
+    private long tick;
+
+    /**
+     * @param slots rounded up to a power of two
+     * @param dispatcher runs the batch of timers that expire in one tick
+     */
+    public TimingWheel(String name, long tickMs, int slots, Executor dispatcher) {
+        if (tickMs <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("tickMs and slots must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.dispatcher = dispatcher;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(task, deadline);
+        added.add(timeout);
+        return timeout;
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleep;
+            while (running && (sleep = deadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) {
+                return;
+            }
+
+            transferAdded();
+            List<Timeout> due = expire(wheel.get((int) (tick & mask)));
+            tick++;
+            if (!due.isEmpty()) {
+                dispatch(due);
+            }
+        }
+    }
+
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = Math.max(0, (calculated - tick) / wheel.size());
+            // Deadlines already in the past go into the current bucket
+            wheel.get((int) (Math.max(calculated, tick) & mask)).add(timeout);
+        }
+    }
+
+    private List<Timeout> expire(ArrayDeque<Timeout> bucket) {
+        List<Timeout> due = new ArrayList<>();
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                if (timeout.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED)) {
+                    due.add(timeout);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+        return due;
+    }
+
+    private void dispatch(List<Timeout> due) {
+        try {
+            dispatcher.execute(() -> {
+                for (Timeout timeout : due) {
+                    try {
+                        timeout.task.run();
+                    } catch (Exception e) {
+                        System.err.println("Error running timer on " + worker.getName() + ": " + e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Dispatcher shut down, the application is stopping
+        }
+    }
+}
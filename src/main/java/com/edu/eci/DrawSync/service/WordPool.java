@@ -0,0 +1,144 @@
+package com.edu.eci.DrawSync.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Words ready to be handed to new games, so starting a game does not wait on a
+ * chat completion.
+ *
+ * <p>The pool is filled in the background with batches of {@code batchSize}
+ * words per API call and topped up whenever it drops below {@code lowWater}.
+ * Words already queued or recently handed out are skipped. When the pool is
+ * empty and the API has not delivered yet, one of the fallback words is used.</p>
+ */
+@Service
+public class WordPool {
+
+    static final String[] FALLBACK_WORDS = { "Casa", "Gato", "Perro", "Sol", "Flor", "Carro", "Avion", "Pelota", "Arbol", "Libro" };
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Value("${drawsync.words.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${drawsync.words.low-water:10}")
+    private int lowWater = 10;
+
+    // How many handed out words are remembered to avoid repeating them
+    @Value("${drawsync.words.recent-size:200}")
+    private int recentSize = 200;
+
+    private final Queue<String> words = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Set<String> known = new HashSet<>();
+    private final Deque<String> recent = new ArrayDeque<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "word-pool");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        requestRefill();
+    }
+
+    /**
+     * Takes a word from the pool, scheduling a refill when it runs low.
+     */
+    public String next() {
+        String word = words.poll();
+        if (word != null) {
+            size.decrementAndGet();
+            remember(word);
+        }
+        if (size.get() < lowWater) {
+            requestRefill();
+        }
+        if (word == null) {
+            word = FALLBACK_WORDS[ThreadLocalRandom.current().nextInt(FALLBACK_WORDS.length)];
+            System.out.println("Word pool empty, using fallback word " + word);
+        }
+        return word;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void requestRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            try {
+                refiller.execute(() -> {
+                    try {
+                        refill();
+                    } catch (Exception e) {
+                        System.err.println("Error refilling word pool: " + e.getMessage());
+                    } finally {
+                        refilling.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                refilling.set(false);
+            }
+        }
+    }
+
+    /**
+     * Fetches one batch of words and adds those not seen before.
+     *
+     * @return the number of words added
+     */
+    int refill() {
+        List<String> batch = openAIService.getRandomWords(batchSize);
+        int added = 0;
+        synchronized (known) {
+            for (String word : batch) {
+                if (known.add(key(word))) {
+                    words.add(word);
+                    size.incrementAndGet();
+                    added++;
+                }
+            }
+        }
+        System.out.println("Word pool refilled with " + added + " of " + batch.size() + " words, size " + size.get());
+        return added;
+    }
+
+    private void remember(String word) {
+        synchronized (known) {
+            recent.addLast(key(word));
+            while (recent.size() > recentSize) {
+                known.remove(recent.removeFirst());
+            }
+        }
+    }
+
+    // Case and accent insensitive, so "Árbol" and "arbol" count as the same word
+    static String key(String word) {
+        return Normalizer.normalize(word, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+}
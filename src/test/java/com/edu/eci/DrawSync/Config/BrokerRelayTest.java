@@ -0,0 +1,152 @@
+package com.edu.eci.DrawSync.Config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts two application nodes in relay mode against an embedded ActiveMQ Artemis
+ * broker and checks that a message published on one node reaches a client
+ * subscribed on the other.
+ */
+class BrokerRelayTest {
+
+    private static EmbeddedActiveMQ broker;
+    private static int stompPort;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @Configuration
+    @EnableAutoConfiguration(exclude = {
+            MongoAutoConfiguration.class, MongoDataAutoConfiguration.class, MongoRepositoriesAutoConfiguration.class,
+            SecurityAutoConfiguration.class, SecurityFilterAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class, ManagementWebSecurityAutoConfiguration.class })
+    @Import(WebSocketConfig.class)
+    static class Node {
+    }
+
+    @BeforeAll
+    static void startBrokerAndNodes() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            stompPort = socket.getLocalPort();
+        }
+        try {
+            broker = new EmbeddedActiveMQ().setConfiguration(new ConfigurationImpl()
+                    .setPersistenceEnabled(false)
+                    .setSecurityEnabled(false)
+                    .addAcceptorConfiguration("stomp", "tcp://localhost:" + stompPort
+                            + "?protocols=STOMP;multicastPrefix=/topic/;anycastPrefix=/queue/"));
+            broker.start();
+        } catch (Exception e) {
+            assumeTrue(false, "Embedded broker could not start: " + e.getMessage());
+        }
+
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--drawsync.broker.mode=relay",
+                        "--drawsync.broker.relay.port=" + stompPort);
+    }
+
+    @AfterAll
+    static void stopAll() throws Exception {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void testMessagePublishedOnOneNodeReachesSubscriberOnAnother() throws Exception {
+        // Given - a client connected to node A, subscribed to a game topic
+        awaitBroker(nodeA);
+        awaitBroker(nodeB);
+        int portA = ((ServletWebServerApplicationContext) nodeA).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new StringMessageConverter());
+        StompSession session = client
+                .connectAsync("ws://localhost:" + portA + "/ws/websocket", new StompSessionHandlerAdapter() {
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe("/topic/ABCD/strokes", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        });
+
+        // When - node B publishes to the same topic (retrying until the subscription reached the broker)
+        SimpMessagingTemplate template = nodeB.getBean(SimpMessagingTemplate.class);
+        String message = null;
+        for (int attempt = 0; attempt < 50 && message == null; attempt++) {
+            template.convertAndSend("/topic/ABCD/strokes", "from node B");
+            message = received.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertEquals("from node B", message);
+        session.disconnect();
+        client.stop();
+    }
+
+    private static void awaitBroker(ConfigurableApplicationContext node) throws InterruptedException {
+        AbstractBrokerMessageHandler relay = node.getBean("stompBrokerRelayMessageHandler",
+                AbstractBrokerMessageHandler.class);
+        for (int i = 0; i < 100 && !relay.isBrokerAvailable(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(relay.isBrokerAvailable(), "Relay did not connect to the broker");
+    }
+}
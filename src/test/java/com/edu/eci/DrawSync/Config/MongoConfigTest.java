@@ -0,0 +1,169 @@
+package com.edu.eci.DrawSync.Config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Creates the application indexes on a local MongoDB and checks with explain that
+ * the history and recent-games queries are served by them without an in-memory
+ * sort. Uses {@code MONGODB_TEST_URI} (default {@code mongodb://localhost:27017})
+ * and is skipped when no server answers.
+ */
+class MongoConfigTest {
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static final String DATABASE = "drawsync_index_test";
+
+    @BeforeAll
+    static void connect() {
+        String uri = System.getenv().getOrDefault("MONGODB_TEST_URI", "mongodb://localhost:27017");
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(1, TimeUnit.SECONDS))
+                .build();
+        client = MongoClients.create(settings);
+        boolean available;
+        try {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            available = true;
+        } catch (Exception e) {
+            available = false;
+        }
+        assumeTrue(available, "No MongoDB at " + uri);
+
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (mongoTemplate != null) {
+            mongoTemplate.getDb().drop();
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void testIndexesAreCreatedAndVerified() {
+        assertTrue(MongoConfig.ensureIndexes(mongoTemplate, 30).isEmpty());
+        // Running again with another TTL replaces the TTL index instead of failing
+        assertTrue(MongoConfig.ensureIndexes(mongoTemplate, 7).isEmpty());
+    }
+
+    @Test
+    void testIndexUnderAnOldNameIsReplaced() {
+        // Given - the stroke index as an older version named it
+        mongoTemplate.getCollection("strokes").createIndex(
+                new Document("sessionId", 1).append("_id", 1),
+                new IndexOptions().name("session_id"));
+
+        // When
+        List<String> missing = MongoConfig.ensureIndexes(mongoTemplate, 30);
+
+        // Then
+        assertTrue(missing.isEmpty());
+        List<String> names = new ArrayList<>();
+        mongoTemplate.getCollection("strokes").listIndexes().forEach(index -> names.add(index.getString("name")));
+        assertTrue(names.contains(MongoConfig.STROKES_BY_ID));
+        assertFalse(names.contains("session_id"));
+    }
+
+    @Test
+    void testStrokeHistoryUsesSessionIndex() {
+        MongoConfig.ensureIndexes(mongoTemplate, 30);
+
+        Document plan = explain("strokes",
+                new Document("sessionId", "ABCD"),
+                new Document("_id", 1));
+
+        assertIndexOnlyPlan(plan, MongoConfig.STROKES_BY_ID);
+    }
+
+    @Test
+    void testStrokeTailUsesSessionIndex() {
+        MongoConfig.ensureIndexes(mongoTemplate, 30);
+
+        Document plan = explain("strokes",
+                new Document("sessionId", "ABCD").append("_id", new Document("$gt", new ObjectId())),
+                new Document("_id", 1));
+
+        assertIndexOnlyPlan(plan, MongoConfig.STROKES_BY_ID);
+    }
+
+    @Test
+    void testRecentGamesUsesPlayerIndex() {
+        MongoConfig.ensureIndexes(mongoTemplate, 30);
+
+        Document plan = explain("games",
+                new Document("players", "Player1").append("status", "FINISHED"),
+                new Document("createdAt", -1));
+
+        assertIndexOnlyPlan(plan, MongoConfig.GAMES_BY_PLAYER);
+    }
+
+    @Test
+    void testGameListingPageUsesCreatedIndex() {
+        MongoConfig.ensureIndexes(mongoTemplate, 30);
+
+        Document plan = explain("games",
+                new Document("$or", List.of(
+                        new Document("createdAt", new Document("$lt", "2024-01-01T00:00:00Z")),
+                        new Document("createdAt", "2024-01-01T00:00:00Z").append("_id", new Document("$lt", "ABCD")))),
+                new Document("createdAt", -1).append("_id", -1));
+
+        assertIndexOnlyPlan(plan, MongoConfig.GAMES_BY_CREATED);
+    }
+
+    private Document explain(String collection, Document filter, Document sort) {
+        Document command = new Document("explain",
+                new Document("find", collection).append("filter", filter).append("sort", sort))
+                .append("verbosity", "queryPlanner");
+        Document result = mongoTemplate.getDb().runCommand(command);
+        Document winningPlan = result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        // Servers using the slot based engine wrap the classic plan in "queryPlan"
+        return winningPlan.containsKey("queryPlan") ? winningPlan.get("queryPlan", Document.class) : winningPlan;
+    }
+
+    private void assertIndexOnlyPlan(Document plan, String indexName) {
+        List<Document> stages = new ArrayList<>();
+        collectStages(plan, stages);
+        List<String> names = stages.stream().map(stage -> stage.getString("stage")).toList();
+
+        assertFalse(names.contains("COLLSCAN"), "Collection scan in plan: " + names);
+        assertFalse(names.contains("SORT"), "In-memory sort in plan: " + names);
+        assertTrue(stages.stream().anyMatch(stage -> "IXSCAN".equals(stage.getString("stage"))
+                && indexName.equals(stage.getString("indexName"))), "Index " + indexName + " not used: " + plan.toJson());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectStages(Document stage, List<Document> stages) {
+        stages.add(stage);
+        if (stage.containsKey("inputStage")) {
+            collectStages(stage.get("inputStage", Document.class), stages);
+        }
+        if (stage.containsKey("inputStages")) {
+            for (Document input : (List<Document>) stage.get("inputStages")) {
+                collectStages(input, stages);
+            }
+        }
+    }
+}
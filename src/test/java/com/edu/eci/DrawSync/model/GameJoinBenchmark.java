@@ -0,0 +1,126 @@
+package com.edu.eci.DrawSync.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Join storm: many threads joining a few lobbies at once, with the compare-and-set
+ * {@link Game#tryJoin(String)} versus the same check-then-add guarded by a lock per
+ * game. Reports throughput and per-join latency percentiles, and checks that no
+ * game ends above capacity. Run with {@code mvn test -Pbenchmark -Dtest=GameJoinBenchmark}.
+ */
+@Tag("benchmark")
+class GameJoinBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int GAMES = 8;
+    private static final int JOINS_PER_THREAD = 200_000;
+    private static final int MAX_PLAYERS = 4;
+
+    @Test
+    void compareJoinStorm() throws InterruptedException {
+        // Warm up both paths before measuring
+        run((game, player) -> game.tryJoin(player), Game::removePlayer);
+        run(GameJoinBenchmark::lockedJoin, GameJoinBenchmark::lockedLeave);
+
+        Result cas = run((game, player) -> game.tryJoin(player), Game::removePlayer);
+        Result locked = run(GameJoinBenchmark::lockedJoin, GameJoinBenchmark::lockedLeave);
+
+        System.out.printf("%-18s %14s %10s %10s %10s%n", "join storm", "joins/s", "p50 ns", "p99 ns", "p99.9 ns");
+        cas.print("compare-and-set");
+        locked.print("lock per game");
+
+        assertTrue(cas.maxPlayers <= MAX_PLAYERS, "Over capacity: " + cas.maxPlayers);
+    }
+
+    // What joinGame did before, made safe with a lock
+    private static JoinResult lockedJoin(Game game, String player) {
+        synchronized (game) {
+            if (game.getPlayers().contains(player)) {
+                return JoinResult.ALREADY_JOINED;
+            }
+            if (game.getPlayers().size() >= game.getMaxPlayers()) {
+                return JoinResult.FULL;
+            }
+            game.addPlayer(player);
+            return JoinResult.JOINED;
+        }
+    }
+
+    private static void lockedLeave(Game game, String player) {
+        synchronized (game) {
+            game.removePlayer(player);
+        }
+    }
+
+    private record Result(double joinsPerSecond, long[] latencies, int maxPlayers) {
+
+        void print(String name) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-18s %14.0f %10d %10d %10d%n", name, joinsPerSecond,
+                    sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)], sorted[(int) (sorted.length * 0.999)]);
+        }
+    }
+
+    private Result run(BiFunction<Game, String, JoinResult> join, BiConsumer<Game, String> leave)
+            throws InterruptedException {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            Game game = new Game();
+            game.setMaxPlayers(MAX_PLAYERS);
+            games.add(game);
+        }
+        // One sampled latency per 16 joins keeps the clock reads out of the throughput figure
+        long[][] samples = new long[THREADS][JOINS_PER_THREAD / 16];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < JOINS_PER_THREAD; i++) {
+                    Game game = games.get(random.nextInt(GAMES));
+                    // Most joins in a storm are rejected; leaving now and then keeps seats turning over
+                    String player = "P" + thread + "-" + (i % 64);
+                    if (i % 16 == 0) {
+                        long begin = System.nanoTime();
+                        join.apply(game, player);
+                        samples[thread][i / 16] = System.nanoTime() - begin;
+                    } else if (join.apply(game, player) == JoinResult.ALREADY_JOINED && i % 5 == 0) {
+                        leave.accept(game, player);
+                    }
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        int maxPlayers = games.stream().mapToInt(game -> game.getPlayers().size()).max().orElse(0);
+        long[] latencies = Arrays.stream(samples).flatMapToLong(Arrays::stream).toArray();
+        return new Result((double) THREADS * JOINS_PER_THREAD / seconds, latencies, maxPlayers);
+    }
+}
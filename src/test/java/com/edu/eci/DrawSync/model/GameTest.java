@@ -3,6 +3,13 @@ package com.edu.eci.DrawSync.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameTest {
@@ -165,4 +172,69 @@ class GameTest {
         game.getPlayers().add("Player2");
         assertEquals(2, game.getPlayers().size());
     }
+
+    @Test
+    void testStatusTransitions() {
+        // Only the allowed moves succeed, and only from the expected state
+        assertFalse(game.transition(GameStatus.LOBBY, GameStatus.FINISHED));
+        assertFalse(game.transition(GameStatus.PLAYING, GameStatus.FINISHED));
+        assertTrue(game.transition(GameStatus.LOBBY, GameStatus.PLAYING));
+        assertFalse(game.transition(GameStatus.LOBBY, GameStatus.PLAYING));
+        assertTrue(game.transition(GameStatus.PLAYING, GameStatus.FINISHED));
+        assertFalse(game.abort());
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+    }
+
+    @Test
+    void testTryJoinResults() {
+        // Given
+        game.setMaxPlayers(2);
+        game.addPlayer("Player1");
+
+        // Then
+        assertEquals(JoinResult.ALREADY_JOINED, game.tryJoin("Player1"));
+        assertEquals(JoinResult.JOINED, game.tryJoin("Player2"));
+        assertEquals(JoinResult.FULL, game.tryJoin("Player3"));
+        assertEquals(2, game.getPlayers().size());
+        assertEquals(0, game.getScores().get("Player2"));
+
+        game.removePlayer("Player2");
+        game.abort();
+        assertEquals(JoinResult.NOT_JOINABLE, game.tryJoin("Player3"));
+    }
+
+    @Test
+    void testConcurrentJoinsNeverExceedCapacity() throws InterruptedException {
+        // Given
+        game.setMaxPlayers(4);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+
+        // When - 16 threads race to join with 8 different names each
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 8; i++) {
+                    if (game.tryJoin("Player" + thread + "-" + i) == JoinResult.JOINED) {
+                        joined.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(4, joined.get());
+        assertEquals(4, game.getPlayers().size());
+        assertEquals(4, new HashSet<>(game.getPlayers()).size());
+    }
 }
@@ -0,0 +1,118 @@
+package com.edu.eci.DrawSync.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointCodecTest {
+
+    @Test
+    void testRoundTripQuantizesToScale() {
+        // Given
+        List<Point> points = List.of(new Point(10.04, 20.0), new Point(11.26, 19.5), new Point(-3.0, 0.0));
+
+        // When
+        List<Point> decoded = PointCodec.decode(PointCodec.encode(points, 10));
+
+        // Then
+        assertEquals(3, decoded.size());
+        assertEquals(10.0, decoded.get(0).getX(), 1e-9);
+        assertEquals(20.0, decoded.get(0).getY(), 1e-9);
+        assertEquals(11.3, decoded.get(1).getX(), 1e-9);
+        assertEquals(19.5, decoded.get(1).getY(), 1e-9);
+        assertEquals(-3.0, decoded.get(2).getX(), 1e-9);
+    }
+
+    @Test
+    void testEmptyStroke() {
+        // When
+        byte[] encoded = PointCodec.encode(List.of(), PointCodec.DEFAULT_SCALE);
+
+        // Then
+        assertEquals(2, encoded.length);
+        assertTrue(PointCodec.decode(encoded).isEmpty());
+    }
+
+    @Test
+    void testFreehandStrokeIsCompact() {
+        // Given - a smooth 500 point stroke like the ones produced by a mouse drag
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new Point(400 + 200 * Math.cos(i / 50.0), 300 + 200 * Math.sin(i / 50.0)));
+        }
+
+        // When
+        byte[] encoded = PointCodec.encode(points, PointCodec.DEFAULT_SCALE);
+
+        // Then - deltas stay within two bytes per axis
+        assertTrue(encoded.length < points.size() * 4, "Encoded size: " + encoded.length);
+    }
+
+    @Test
+    void testTruncatedDataIsRejected() {
+        // Given
+        byte[] encoded = PointCodec.encode(List.of(new Point(1000, 1000)), PointCodec.DEFAULT_SCALE);
+        byte[] truncated = java.util.Arrays.copyOf(encoded, encoded.length - 1);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> PointCodec.decode(truncated));
+    }
+
+    @Test
+    void testTrailingBytesAreRejected() {
+        // Given
+        byte[] encoded = PointCodec.encode(List.of(new Point(1, 1)), PointCodec.DEFAULT_SCALE);
+        byte[] padded = java.util.Arrays.copyOf(encoded, encoded.length + 1);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> PointCodec.decode(padded));
+    }
+
+    @Test
+    void testStrokeWithMalformedEncodedPointsIsRejected() {
+        // Given - a header announcing more points than the data holds
+        Stroke stroke = new Stroke();
+        stroke.setEncodedPoints(new byte[] { 10, 3, 2 });
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> stroke.packed(PointCodec.DEFAULT_SCALE));
+    }
+
+    @Test
+    void testStrokeEncodedPointsAreReencodedAtTheServerScale() {
+        // Given
+        Stroke stroke = new Stroke();
+        stroke.setEncodedPoints(PointCodec.encode(List.of(new Point(1.25, 2.5)), 100));
+
+        // When
+        Stroke packed = stroke.packed(PointCodec.DEFAULT_SCALE);
+
+        // Then
+        assertArrayEquals(PointCodec.encode(List.of(new Point(1.25, 2.5)), PointCodec.DEFAULT_SCALE),
+                packed.getEncodedPoints());
+    }
+
+    @Test
+    void testStrokePackedAndUnpackedCopies() {
+        // Given
+        Stroke stroke = new Stroke();
+        stroke.setSessionId("ABCD");
+        stroke.setPoints(List.of(new Point(1.5, 2.5), new Point(3.0, 4.0)));
+
+        // When
+        Stroke packed = stroke.packed(PointCodec.DEFAULT_SCALE);
+        Stroke unpacked = packed.unpacked();
+
+        // Then
+        assertNull(packed.getPoints());
+        assertNotNull(packed.getEncodedPoints());
+        assertNotNull(stroke.getPoints());
+        assertEquals("ABCD", unpacked.getSessionId());
+        assertNull(unpacked.getEncodedPoints());
+        assertEquals(2, unpacked.getPoints().size());
+        assertEquals(4.0, unpacked.getPoints().get(1).getY(), 1e-9);
+    }
+}
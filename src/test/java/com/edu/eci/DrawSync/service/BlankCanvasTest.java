@@ -0,0 +1,68 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlankCanvasTest {
+
+    static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    static BufferedImage canvas(boolean transparent) {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+        if (!transparent) {
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 800, 600);
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    @Test
+    void testEmptyCanvasesAreBlank() throws IOException {
+        assertTrue(BlankCanvas.isBlank(png(canvas(false)), 0.001));
+        assertTrue(BlankCanvas.isBlank(png(canvas(true)), 0.001));
+    }
+
+    @Test
+    void testStrokeOnTransparentCanvasIsNotBlank() throws IOException {
+        // Given - a single line, as a canvas exported without background
+        BufferedImage image = canvas(true);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.setStroke(new BasicStroke(4));
+        graphics.drawLine(100, 100, 400, 300);
+        graphics.dispose();
+
+        // Then
+        assertFalse(BlankCanvas.isBlank(png(image), 0.001));
+    }
+
+    @Test
+    void testStraySpeckIsStillBlank() throws IOException {
+        // Given
+        BufferedImage image = canvas(false);
+        image.setRGB(10, 10, Color.BLACK.getRGB());
+
+        // Then
+        assertTrue(BlankCanvas.isBlank(png(image), 0.001));
+    }
+
+    @Test
+    void testUnreadableImageIsNotBlank() {
+        assertFalse(BlankCanvas.isBlank(new byte[] { 1, 2, 3 }, 0.001));
+    }
+}
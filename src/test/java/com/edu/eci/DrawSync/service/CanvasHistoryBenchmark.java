@@ -0,0 +1,108 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Point;
+import com.edu.eci.DrawSync.model.Stroke;
+import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Peak heap of serializing a long session's history as one list versus streaming
+ * it as NDJSON. Run with {@code mvn test -Pbenchmark -Dtest=CanvasHistoryBenchmark}.
+ */
+@Tag("benchmark")
+class CanvasHistoryBenchmark {
+
+    private static final int STROKES = 100_000;
+    private static final int POINTS_PER_STROKE = 30;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Stroke stroke(int i) {
+        Stroke stroke = new Stroke();
+        stroke.setId(String.format("%024x", i));
+        stroke.setSessionId("BENCH");
+        stroke.setUserId("player");
+        stroke.setColor("#000000");
+        stroke.setThickness(3);
+        stroke.setTimestamp(i);
+        List<Point> points = new ArrayList<>(POINTS_PER_STROKE);
+        for (int p = 0; p < POINTS_PER_STROKE; p++) {
+            points.add(new Point(i % 800 + p, i % 600 + p));
+        }
+        stroke.setPoints(points);
+        return stroke.packed(10);
+    }
+
+    @Test
+    void compareListAndStreamingPeakHeap() throws Exception {
+        StrokeRepository repository = mock(StrokeRepository.class);
+        when(repository.findBySessionIdOrderByIdAsc("BENCH"))
+                .thenAnswer(invocation -> IntStream.range(0, STROKES).mapToObj(CanvasHistoryBenchmark::stroke).toList());
+        when(repository.streamBySessionIdOrderByIdAsc("BENCH"))
+                .thenAnswer(invocation -> IntStream.range(0, STROKES).mapToObj(CanvasHistoryBenchmark::stroke));
+
+        CanvasService canvasService = new CanvasService();
+        ReflectionTestUtils.setField(canvasService, "strokeRepository", repository);
+        ReflectionTestUtils.setField(canvasService, "objectMapper", objectMapper);
+
+        // Warm up both paths so class loading does not count against either
+        measure(() -> writeList(repository, OutputStream.nullOutputStream()));
+        measure(() -> canvasService.streamHistory("BENCH", false, OutputStream.nullOutputStream()));
+
+        long listPeak = measure(() -> writeList(repository, OutputStream.nullOutputStream()));
+        long streamPeak = measure(() -> canvasService.streamHistory("BENCH", false, OutputStream.nullOutputStream()));
+
+        System.out.printf("History of %d strokes: list peak %d MB, streaming peak %d MB%n",
+                STROKES, listPeak / (1024 * 1024), streamPeak / (1024 * 1024));
+    }
+
+    private void writeList(StrokeRepository repository, OutputStream out) throws Exception {
+        List<Stroke> strokes = repository.findBySessionIdOrderByIdAsc("BENCH")
+                .stream().map(Stroke::unpacked).toList();
+        objectMapper.writeValue(out, strokes);
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs a task while sampling heap usage, returning the peak above the starting baseline.
+     */
+    private long measure(Task task) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        Thread.sleep(200);
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                Thread.onSpinWait();
+            }
+        });
+        sampler.start();
+        try {
+            task.run();
+        } finally {
+            running.set(false);
+            sampler.join();
+        }
+        return peak.get() - baseline;
+    }
+}
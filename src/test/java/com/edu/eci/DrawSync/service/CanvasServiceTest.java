@@ -0,0 +1,122 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Point;
+import com.edu.eci.DrawSync.model.Stroke;
+import com.edu.eci.DrawSync.model.DTO.StrokePage;
+import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CanvasServiceTest {
+
+    @Mock
+    private StrokeRepository strokeRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CanvasService canvasService;
+
+    private Stroke stroke(long timestamp) {
+        Stroke stroke = new Stroke();
+        stroke.setId(new ObjectId().toHexString());
+        stroke.setSessionId("ABCD");
+        stroke.setTimestamp(timestamp);
+        stroke.setPoints(List.of(new Point(1, 1), new Point(2, 2)));
+        return stroke;
+    }
+
+    @Test
+    void testGetStrokesReportsNextPage() {
+        // Given
+        List<Stroke> found = new ArrayList<>(List.of(stroke(1), stroke(2), stroke(3)));
+        when(mongoTemplate.find(any(Query.class), eq(Stroke.class))).thenReturn(found);
+
+        // When
+        StrokePage page = canvasService.getStrokes("ABCD", null, 2);
+
+        // Then
+        assertEquals(2, page.strokes().size());
+        assertTrue(page.hasMore());
+        assertEquals(found.get(1).getId(), page.nextCursor());
+    }
+
+    @Test
+    void testGetStrokesLastPage() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(Stroke.class))).thenReturn(new ArrayList<>(List.of(stroke(5))));
+
+        // When
+        StrokePage page = canvasService.getStrokes("ABCD", new ObjectId().toHexString(), 2);
+
+        // Then
+        assertEquals(1, page.strokes().size());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void testGetStrokesPagesInIdOrder() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(Stroke.class))).thenReturn(new ArrayList<>());
+        String after = new ObjectId().toHexString();
+
+        // When
+        canvasService.getStrokes("ABCD", after, 10);
+
+        // Then
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Stroke.class));
+        assertEquals(new Document("_id", 1), captor.getValue().getSortObject());
+        assertEquals(11, captor.getValue().getLimit());
+    }
+
+    @Test
+    void testGetStrokesRejectsInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> canvasService.getStrokes("ABCD", "nope", 10));
+    }
+
+    @Test
+    void testStreamHistoryWritesOneStrokePerLine() throws Exception {
+        // Given
+        when(strokeRepository.streamBySessionIdOrderByIdAsc("ABCD"))
+                .thenReturn(Stream.of(stroke(1).packed(10), stroke(2).packed(10), stroke(3).packed(10)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = canvasService.streamHistory("ABCD", false, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals(3, lines.length);
+        Stroke first = objectMapper.readValue(lines[0], Stroke.class);
+        assertEquals(1, first.getTimestamp());
+        assertEquals(2, first.getPoints().size());
+        assertNull(first.getEncodedPoints());
+    }
+}
@@ -0,0 +1,109 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrawingNormalizerTest {
+
+    private final DrawingNormalizer normalizer = new DrawingNormalizer();
+
+    private static BufferedImage read(DrawingStore.Drawing drawing) throws Exception {
+        return ImageIO.read(new ByteArrayInputStream(drawing.data()));
+    }
+
+    @Test
+    void testLargeDrawingIsScaledToMaxDimension() throws Exception {
+        // Given - a drawing covering a 2000x1000 canvas
+        BufferedImage canvas = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 2000, 1000);
+        graphics.setColor(Color.RED);
+        graphics.fillOval(0, 0, 2000, 1000);
+        graphics.dispose();
+        byte[] png = BlankCanvasTest.png(canvas);
+
+        // When
+        DrawingStore.Drawing normalized = normalizer.normalize(new DrawingStore.Drawing(png, "image/png"));
+
+        // Then
+        BufferedImage image = read(normalized);
+        assertEquals(512, image.getWidth());
+        assertEquals(256, image.getHeight());
+        assertTrue(normalized.data().length < png.length);
+    }
+
+    @Test
+    void testBlankCanvasBecomesOnePixel() throws Exception {
+        // Given
+        byte[] png = BlankCanvasTest.png(BlankCanvasTest.canvas(true));
+
+        // When
+        DrawingStore.Drawing normalized = normalizer.normalize(new DrawingStore.Drawing(png, "image/png"));
+
+        // Then
+        BufferedImage image = read(normalized);
+        assertEquals(1, image.getWidth());
+        assertTrue(BlankCanvas.isBlank(normalized.data(), 0.001));
+    }
+
+    @Test
+    void testUnreadableImageIsKept() {
+        // Given
+        DrawingStore.Drawing drawing = new DrawingStore.Drawing(new byte[] { 1, 2, 3 }, "image/webp");
+
+        // Then
+        assertSame(drawing, normalizer.normalize(drawing));
+    }
+
+    @Test
+    void testOversizedImageIsRefusedFromItsHeader() throws Exception {
+        // Given - a small PNG declaring more pixels than allowed
+        ReflectionTestUtils.setField(normalizer, "maxPixels", 100L * 100);
+        byte[] png = BlankCanvasTest.png(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB));
+        DrawingStore.Drawing drawing = new DrawingStore.Drawing(png, "image/png");
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> normalizer.checkSize(drawing));
+        assertSame(drawing, normalizer.normalize(drawing));
+    }
+
+    @Test
+    void testSubmissionsBeyondTheQueueAreRejected() {
+        // Given - one thread held busy and room for one waiting drawing
+        ReflectionTestUtils.setField(normalizer, "threads", 1);
+        ReflectionTestUtils.setField(normalizer, "queueCapacity", 1);
+        normalizer.configure();
+        CountDownLatch release = new CountDownLatch(1);
+        DrawingStore.Drawing drawing = new DrawingStore.Drawing(new byte[] { 1, 2, 3 }, "image/webp");
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(normalizer, "executor");
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // When
+        CompletableFuture<DrawingStore.Drawing> queued = normalizer.normalizeAsync(drawing);
+
+        // Then
+        assertThrows(RejectedExecutionException.class, () -> normalizer.normalizeAsync(drawing));
+        release.countDown();
+        assertSame(drawing, queued.join());
+        normalizer.shutdown();
+    }
+}
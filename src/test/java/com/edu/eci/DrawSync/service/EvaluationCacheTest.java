@@ -0,0 +1,54 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationCacheTest {
+
+    @Test
+    void testScoresAreKeptPerImageAndWord() {
+        // Given
+        EvaluationCache cache = new EvaluationCache(10, 60_000);
+
+        // When
+        cache.put("hash1", "Casa", 80);
+
+        // Then - the word is matched case insensitively
+        assertEquals(80, cache.get("hash1", "casa"));
+        assertNull(cache.get("hash1", "Gato"));
+        assertNull(cache.get("hash2", "Casa"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        // Given
+        EvaluationCache cache = new EvaluationCache(2, 60_000);
+        cache.put("hash1", "Casa", 10);
+        cache.put("hash2", "Casa", 20);
+
+        // When - hash1 is read, so hash2 is the least recently used
+        cache.get("hash1", "Casa");
+        cache.put("hash3", "Casa", 30);
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.get("hash1", "Casa"));
+        assertNull(cache.get("hash2", "Casa"));
+        assertEquals(30, cache.get("hash3", "Casa"));
+    }
+
+    @Test
+    void testEntriesExpire() throws InterruptedException {
+        // Given
+        EvaluationCache cache = new EvaluationCache(10, 20);
+        cache.put("hash1", "Casa", 80);
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertNull(cache.get("hash1", "Casa"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.EvaluationJob;
+import com.edu.eci.DrawSync.model.Game;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationJobStoreTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private EvaluationJobStore store;
+
+    private static EvaluationJob leased(String owner) {
+        EvaluationJob job = new EvaluationJob();
+        job.setGameCode("ABCD");
+        job.setLeaseOwner(owner);
+        return job;
+    }
+
+    @Test
+    void testEnqueueStoresWhatTheRoundNeeds() {
+        // Given
+        Game game = new Game();
+        game.setGameCode("ABCD");
+        game.addPlayer("Player1");
+        game.addPlayer("Player2");
+        game.setCurrentWord("Casa");
+        game.addDrawing("Player1", "drawing-1");
+
+        // When
+        store.enqueue(game, 5000);
+
+        // Then
+        ArgumentCaptor<EvaluationJob> job = ArgumentCaptor.forClass(EvaluationJob.class);
+        verify(mongoTemplate).save(job.capture(), eq(EvaluationJobStore.COLLECTION));
+        assertEquals("ABCD", job.getValue().getGameCode());
+        assertEquals(EvaluationJob.Status.PENDING, job.getValue().getStatus());
+        assertEquals(5000, job.getValue().getNotBefore());
+        assertEquals(List.of("Player1", "Player2"), job.getValue().getPlayers());
+        assertEquals("drawing-1", job.getValue().toGame().getDrawings().get("Player1"));
+    }
+
+    @Test
+    void testClaimTakesDueUnleasedJobUnderNewToken() {
+        // When
+        store.claim(1000, 60000);
+
+        // Then
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(EvaluationJob.class), eq(EvaluationJobStore.COLLECTION));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(new Document("$lte", 1000L), filter.get("notBefore"));
+        assertEquals(new Document("$lte", 1000L), filter.get("leaseUntil"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(61000L, set.get("leaseUntil"));
+        assertNotNull(set.get("leaseOwner"));
+        assertEquals(new Document("attempts", 1), update.getValue().getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    void testScoresAreSetUnderTheLease() {
+        // When
+        store.recordScore(leased("token"), "Player1", 80);
+
+        // Then - a $set on the player's entry, so writing it twice changes nothing
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(EvaluationJobStore.COLLECTION));
+        assertEquals("token", query.getValue().getQueryObject().get("leaseOwner"));
+        assertEquals("Player1", query.getValue().getQueryObject().get("drawings.player"));
+        assertEquals(new Document("drawings.$.score", 80), update.getValue().getUpdateObject().get("$set"));
+    }
+
+    @Test
+    void testCompleteReportsLostLease() {
+        // Given
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(EvaluationJobStore.COLLECTION)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Then
+        assertFalse(store.complete(leased("stale")));
+    }
+
+    @Test
+    void testFinishedJobsGetTheirExpiryDate() {
+        // Given
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(EvaluationJobStore.COLLECTION)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        store.fail(leased("token"));
+
+        // Then - the TTL index on finishedAt removes it later
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(EvaluationJobStore.COLLECTION));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(EvaluationJob.Status.FAILED, set.get("status"));
+        assertInstanceOf(Date.class, set.get("finishedAt"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.EvaluationJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationWorkerTest {
+
+    @Mock
+    private EvaluationJobStore jobs;
+
+    @Mock
+    private GameService gameService;
+
+    @InjectMocks
+    private EvaluationWorker worker;
+
+    private static EvaluationJob job(int attempts) {
+        EvaluationJob job = new EvaluationJob();
+        job.setGameCode("ABCD");
+        job.setLeaseOwner("token");
+        job.setAttempts(attempts);
+        return job;
+    }
+
+    @Test
+    void testDrainsDueJobsAndRecordsScores() {
+        // Given
+        EvaluationJob first = job(1);
+        EvaluationJob second = job(1);
+        when(jobs.claim(anyLong(), anyLong())).thenReturn(first, second, null);
+        when(gameService.evaluateJob(any(), any())).thenAnswer(invocation -> {
+            BiConsumer<String, Integer> onScore = invocation.getArgument(1);
+            onScore.accept("Player1", 70);
+            return CompletableFuture.completedFuture(null);
+        });
+        when(jobs.complete(any())).thenReturn(true);
+
+        // When
+        worker.drain();
+
+        // Then
+        verify(jobs).recordScore(first, "Player1", 70);
+        verify(jobs).complete(first);
+        verify(jobs).complete(second);
+    }
+
+    @Test
+    void testFailedEvaluationIsReleasedForRetry() {
+        // Given
+        EvaluationJob job = job(1);
+        when(gameService.evaluateJob(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        // When
+        worker.run(job);
+
+        // Then
+        verify(jobs).release(eq(job), anyLong());
+        verify(jobs, never()).complete(any());
+    }
+
+    @Test
+    void testJobIsGivenUpAfterMaxAttempts() {
+        // Given
+        EvaluationJob job = job(6);
+
+        // When
+        worker.run(job);
+
+        // Then
+        verify(jobs).fail(job);
+        verifyNoInteractions(gameService);
+    }
+}
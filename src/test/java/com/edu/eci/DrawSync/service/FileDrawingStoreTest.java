@@ -0,0 +1,83 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDrawingStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDataUrlIsStoredAsBytesByContent() throws Exception {
+        // Given
+        FileDrawingStore store = new FileDrawingStore(directory);
+        store.init();
+        byte[] image = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1, 2, 3 };
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(image);
+
+        // When
+        String id = store.putDataUrl(dataUrl);
+        String again = store.putDataUrl(dataUrl);
+
+        // Then - one file holding the decoded bytes
+        assertEquals(id, again);
+        assertTrue(DrawingStore.isContentId(id));
+        try (var files = Files.walk(directory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+        DrawingStore.Drawing drawing = store.get(id);
+        assertArrayEquals(image, drawing.data());
+        assertEquals("image/png", drawing.contentType());
+        assertEquals(dataUrl, store.dataUrl(id));
+    }
+
+    @Test
+    void testUnknownAndInvalidIds() {
+        // Given
+        FileDrawingStore store = new FileDrawingStore(directory);
+        store.init();
+
+        // Then
+        assertNull(store.get(DrawingStore.contentId(new byte[] { 1 })));
+        assertNull(store.get("../../etc/passwd"));
+    }
+
+    @Test
+    void testRejectsInvalidDrawings() {
+        // Given
+        FileDrawingStore store = new FileDrawingStore(directory);
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> store.putDataUrl("data:image/png;base64,***"));
+        assertThrows(IllegalArgumentException.class, () -> store.putDataUrl("data:text/html;base64,PGI+"));
+        // HTML declared as an image
+        assertThrows(IllegalArgumentException.class, () -> store.putDataUrl("data:image/png;base64,PGI+"));
+        // A PNG declared as a GIF
+        assertThrows(IllegalArgumentException.class, () -> store.putDataUrl("data:image/gif;base64,iVBORw0KGgo="));
+    }
+
+    @Test
+    void testIdsAreKeyedWithTheSecret() {
+        // Given
+        FileDrawingStore store = new FileDrawingStore(directory);
+        ReflectionTestUtils.setField(store, "idSecret", "secret");
+        store.init();
+        byte[] image = Base64.getDecoder().decode("iVBORw0KGgo=");
+
+        // When
+        String id = store.put(image, "image/png");
+
+        // Then - the plain hash of the image does not find it
+        assertEquals(DrawingStore.contentId(image, "secret".getBytes()), id);
+        assertNotEquals(DrawingStore.contentId(image), id);
+        assertNull(store.get(DrawingStore.contentId(image)));
+    }
+}
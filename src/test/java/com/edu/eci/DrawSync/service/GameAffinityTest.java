@@ -0,0 +1,77 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameAffinityTest {
+
+    private GameAffinity affinity(String nodeId, String nodes) {
+        GameAffinity affinity = new GameAffinity();
+        ReflectionTestUtils.setField(affinity, "nodeId", nodeId);
+        ReflectionTestUtils.setField(affinity, "nodesProperty", nodes);
+        affinity.init();
+        return affinity;
+    }
+
+    @Test
+    void testSingleNodeOwnsEverything() {
+        GameAffinity affinity = affinity("local", "");
+
+        assertTrue(affinity.isLocal("ABCD"));
+        assertNull(affinity.ownerUrl("ABCD"));
+    }
+
+    @Test
+    void testAllNodesAgreeOnOwner() {
+        // Given
+        String nodes = "a=http://a:8080,b=http://b:8080/,c=http://c:8080";
+        GameAffinity a = affinity("a", nodes);
+        GameAffinity b = affinity("b", nodes);
+        GameAffinity c = affinity("c", nodes);
+
+        for (int i = 0; i < 200; i++) {
+            String code = Game.newGameCode();
+
+            // Then - exactly one node considers the game local, the others point to it
+            int local = (a.isLocal(code) ? 1 : 0) + (b.isLocal(code) ? 1 : 0) + (c.isLocal(code) ? 1 : 0);
+            assertEquals(1, local);
+            String owner = a.ownerOf(code);
+            assertEquals(owner, b.ownerOf(code));
+            if (!"b".equals(owner)) {
+                assertEquals("http://" + owner + ":8080", b.ownerUrl(code));
+            }
+        }
+    }
+
+    @Test
+    void testGamesSpreadEvenlyAndMoveOnlyFromRemovedNode() {
+        // Given
+        GameAffinity three = affinity("a", "a=http://a,b=http://b,c=http://c");
+        GameAffinity two = affinity("a", "a=http://a,b=http://b");
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 30_000; i++) {
+            String code = String.format("%04X", i % 65536) + i;
+            String before = three.ownerOf(code);
+            counts.merge(before, 1, Integer::sum);
+
+            // Then - removing c keeps every game of a and b where it was
+            if (!"c".equals(before)) {
+                assertEquals(before, two.ownerOf(code));
+            }
+        }
+        counts.values().forEach(count -> assertTrue(count > 9_000 && count < 11_000, "Unbalanced: " + counts));
+    }
+
+    @Test
+    void testNodeIdMustBeInCluster() {
+        assertThrows(IllegalArgumentException.class, () -> affinity("z", "a=http://a,b=http://b"));
+        assertThrows(IllegalArgumentException.class, () -> affinity("a", "a=http://a,broken"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tick lateness of 10k game clocks ticking once a second, driven by one scheduled
+ * future per game on a 5 thread pool versus the shared timing wheel. Run with
+ * {@code mvn test -Pbenchmark -Dtest=GameClockBenchmark}.
+ */
+@Tag("benchmark")
+class GameClockBenchmark {
+
+    private static final int GAMES = 10_000;
+    private static final int TICKS = 5;
+
+    // Stands in for the per tick broadcast
+    private static void work() {
+        long end = System.nanoTime() + 2_000;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void compareTickJitter() throws InterruptedException {
+        long[] pool = runScheduledPool();
+        long[] coarse = runTimingWheel(100);
+        long[] fine = runTimingWheel(10);
+
+        System.out.printf("%-22s %10s %10s %10s%n", "lateness (ms)", "p50", "p99", "max");
+        print("scheduled pool (5)", pool);
+        print("timing wheel (100ms)", coarse);
+        print("timing wheel (10ms)", fine);
+
+        // The wheel quantizes to its tick (10 ms in GameService), but must not fall behind
+        assertTrue(percentile(fine, 0.99) < 50, "Wheel p99 lateness " + percentile(fine, 0.99) + " ms");
+    }
+
+    private long[] runScheduledPool() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(5);
+        long[] lateness = new long[GAMES * TICKS];
+        AtomicInteger samples = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(GAMES);
+        long start = System.nanoTime();
+
+        for (int game = 0; game < GAMES; game++) {
+            long offset = TimeUnit.MILLISECONDS.toNanos(game % 1000);
+            AtomicInteger ticks = new AtomicInteger();
+            ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+            self[0] = scheduler.scheduleAtFixedRate(() -> {
+                int tick = ticks.incrementAndGet();
+                long expected = start + offset + TimeUnit.SECONDS.toNanos(tick);
+                work();
+                lateness[samples.getAndIncrement()] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - expected);
+                if (tick == TICKS) {
+                    done.countDown();
+                    throw new CancellationException(); // Stops the periodic task
+                }
+            }, offset + TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS);
+        }
+
+        done.await(TICKS + 30, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+        return Arrays.copyOf(lateness, samples.get());
+    }
+
+    private long[] runTimingWheel(long tickMs) throws InterruptedException {
+        ExecutorService dispatcher = Executors.newFixedThreadPool(2);
+        TimingWheel wheel = new TimingWheel("bench-wheel", tickMs, 512, dispatcher);
+        long[] lateness = new long[GAMES * TICKS];
+        AtomicInteger samples = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(GAMES);
+        long start = System.nanoTime();
+
+        for (int game = 0; game < GAMES; game++) {
+            long offset = TimeUnit.MILLISECONDS.toNanos(game % 1000);
+            scheduleTick(wheel, start + offset, 1, lateness, samples, done);
+        }
+
+        done.await(TICKS + 30, TimeUnit.SECONDS);
+        wheel.stop();
+        dispatcher.shutdownNow();
+        return Arrays.copyOf(lateness, samples.get());
+    }
+
+    private void scheduleTick(TimingWheel wheel, long startedAt, int tick, long[] lateness, AtomicInteger samples,
+            CountDownLatch done) {
+        long expected = startedAt + TimeUnit.SECONDS.toNanos(tick);
+        wheel.schedule(() -> {
+            work();
+            lateness[samples.getAndIncrement()] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - expected);
+            if (tick == TICKS) {
+                done.countDown();
+            } else {
+                scheduleTick(wheel, startedAt, tick + 1, lateness, samples, done);
+            }
+        }, expected - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void print(String name, long[] lateness) {
+        System.out.printf("%-22s %10d %10d %10d%n", name,
+                percentile(lateness, 0.50), percentile(lateness, 0.99), percentile(lateness, 1.0));
+    }
+
+    private static long percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+}
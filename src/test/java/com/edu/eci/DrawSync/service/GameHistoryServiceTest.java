@@ -0,0 +1,108 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+import com.edu.eci.DrawSync.model.DTO.GamePage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameHistoryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private GameHistoryService gameHistoryService;
+
+    private static Game game(String code, String createdAt) {
+        Game game = new Game();
+        game.setGameCode(code);
+        game.setCreatedAt(createdAt);
+        game.setStatus(GameStatus.FINISHED);
+        game.addPlayer("Player1");
+        return game;
+    }
+
+    @Test
+    void testListGames_PagesWithKeysetCursor() {
+        // Given - one game more than the page size comes back
+        when(mongoTemplate.find(any(Query.class), eq(Game.class))).thenReturn(List.of(
+                game("CCCC", "2024-01-03T00:00:00Z"),
+                game("BBBB", "2024-01-02T00:00:00Z"),
+                game("AAAA", "2024-01-01T00:00:00Z")));
+
+        // When
+        GamePage page = gameHistoryService.listGames("FINISHED", null, "2024-01-04T00:00:00Z_DDDD", 2);
+
+        // Then
+        assertEquals(2, page.games().size());
+        assertTrue(page.hasMore());
+        assertEquals("2024-01-02T00:00:00Z_BBBB", page.nextCursor());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Game.class));
+        Query query = captor.getValue();
+        assertEquals(3, query.getLimit());
+        assertEquals(new Document("createdAt", -1).append("_id", -1), query.getSortObject());
+        // Only the history fields are read, never the drawings
+        assertFalse(query.getFieldsObject().containsKey("drawings"));
+        assertEquals(1, query.getFieldsObject().get("winner"));
+        String filter = query.getQueryObject().toJson();
+        assertTrue(filter.contains("\"status\": \"FINISHED\""), filter);
+        assertTrue(filter.contains("\"$lt\": \"DDDD\""), filter);
+    }
+
+    @Test
+    void testListGames_LastPageHasNoCursor() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(Game.class))).thenReturn(List.of(game("AAAA", "2024-01-01T00:00:00Z")));
+
+        // When
+        GamePage page = gameHistoryService.listGames(null, "Player1", null, 10);
+
+        // Then
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> gameHistoryService.listGames(null, null, "nocursor", 10));
+    }
+
+    @Test
+    void testStreamGames_WritesOneLinePerGame() throws Exception {
+        // Given
+        when(mongoTemplate.stream(any(Query.class), eq(Game.class))).thenReturn(Stream.of(
+                game("BBBB", "2024-01-02T00:00:00Z"),
+                game("AAAA", "2024-01-01T00:00:00Z")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = gameHistoryService.streamGames(null, null, out);
+
+        // Then
+        assertEquals(2, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"gameCode\":\"BBBB\""), lines[0]);
+    }
+}
@@ -1,14 +1,37 @@
 package com.edu.eci.DrawSync.service;
 
+import com.edu.eci.DrawSync.model.EvaluationJob;
 import com.edu.eci.DrawSync.model.Game;
 import com.edu.eci.DrawSync.model.GameStatus;
+import com.edu.eci.DrawSync.model.JoinResult;
+import com.edu.eci.DrawSync.model.DTO.GameHistory;
+import com.edu.eci.DrawSync.model.DTO.GameView;
+import com.edu.eci.DrawSync.model.DTO.RoundClock;
+import com.edu.eci.DrawSync.repository.GameRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -20,15 +43,54 @@ class GameServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private StrokeJournal strokeJournal;
+
+    @Mock
+    private StrokeBroadcaster strokeBroadcaster;
+
+    @Mock
+    private DrawingEvaluator drawingEvaluator;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private WordPool wordPool;
+
+    @Mock
+    private GameAffinity gameAffinity;
+
+    @Mock
+    private DrawingStore drawingStore;
+
     @InjectMocks
     private GameService gameService;
 
+    private final DrawingNormalizer drawingNormalizer = new DrawingNormalizer();
+
     @BeforeEach
     void setUp() throws Exception {
         // Use reflection to set the private messagingTemplate field
         java.lang.reflect.Field field = GameService.class.getDeclaredField("messagingTemplate");
         field.setAccessible(true);
         field.set(gameService, messagingTemplate);
+
+        // Single node: every game is owned locally
+        lenient().when(gameAffinity.isLocal(anyString())).thenReturn(true);
+        ReflectionTestUtils.setField(gameService, "games", new InMemoryGameRegistry());
+        drawingNormalizer.configure();
+        ReflectionTestUtils.setField(gameService, "drawingNormalizer", drawingNormalizer);
+
+        gameService.indexLobbies();
+
+        // Drawings added straight to a game are their own content
+        lenient().when(drawingStore.dataUrl(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        drawingNormalizer.shutdown();
     }
 
     @Test
@@ -135,6 +197,212 @@ class GameServiceTest {
                 anyInt());
     }
 
+    @Test
+    void testStartGame_TakesWordFromPool() {
+        // Given
+        Game game = gameService.createGame("Player1");
+        when(wordPool.next()).thenReturn("Castillo");
+
+        // When
+        gameService.startGame(game.getGameCode());
+
+        // Then
+        assertEquals("Castillo", game.getCurrentWord());
+        verify(messagingTemplate).convertAndSend("/topic/" + game.getGameCode() + "/word", (Object) "Castillo");
+        verifyNoInteractions(drawingEvaluator);
+    }
+
+    @Test
+    void testStartGame_ConcurrentStartsRunOnce() throws InterruptedException {
+        // Given
+        Game game = gameService.createGame("Player1");
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                gameService.startGame(game.getGameCode());
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // When
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then - one word, one round start
+        assertEquals(GameStatus.PLAYING, game.getStatus());
+        verify(wordPool, times(1)).next();
+    }
+
+    @Test
+    void testTryJoin_FullGame() {
+        // Given
+        Game game = gameService.createGame("Player1", 2, 60, false);
+        gameService.joinGame(game.getGameCode(), "Player2");
+
+        // When
+        JoinResult result = gameService.tryJoin(game.getGameCode(), "Player3");
+
+        // Then
+        assertEquals(JoinResult.FULL, result);
+        assertEquals(2, game.getPlayers().size());
+        assertEquals(JoinResult.NOT_FOUND, gameService.tryJoin("XXXX", "Player3"));
+    }
+
+    @Test
+    void testAvailableGames_OnlyJoinablePublicLobbies() {
+        // Given
+        Game open = gameService.createGame("Player1", 4, 60, false);
+        gameService.createGame("Player2", 4, 60, true);
+        Game full = gameService.createGame("Player3", 2, 60, false);
+        gameService.joinGame(full.getGameCode(), "Player4");
+        Game started = gameService.createGame("Player5", 4, 60, false);
+        gameService.startGame(started.getGameCode());
+
+        // When
+        List<Game> available = gameService.getAvailableGames();
+
+        // Then
+        assertEquals(List.of(open), available);
+    }
+
+    @Test
+    void testAvailableGames_VersionFollowsLobbyChanges() {
+        // Given
+        Game game = gameService.createGame("Player1", 2, 60, false);
+        long created = gameService.getAvailableGamesVersion();
+
+        // When - the game fills up and disappears from the list
+        gameService.joinGame(game.getGameCode(), "Player2");
+        long filled = gameService.getAvailableGamesVersion();
+        // and a player leaves so it is listed again
+        gameService.leaveGame(game.getGameCode(), "Player2");
+
+        // Then
+        assertTrue(filled > created);
+        assertTrue(gameService.getAvailableGamesVersion() > filled);
+        assertEquals(List.of(game), gameService.getAvailableGames());
+
+        // When - aborted
+        long beforeAbort = gameService.getAvailableGamesVersion();
+        gameService.abortGame(game.getGameCode());
+
+        // Then
+        assertTrue(gameService.getAvailableGamesVersion() > beforeAbort);
+        assertTrue(gameService.getAvailableGames().isEmpty());
+    }
+
+    @Test
+    void testSubmitDrawing_StoresImageAndKeepsId() {
+        // Given
+        Game game = gameService.createGame("Player1");
+        String drawing = "data:image/png;base64,iVBORw0KGgo=";
+        when(drawingStore.put(any(byte[].class), eq("image/png"))).thenReturn("abc123");
+
+        // When
+        gameService.submitDrawing(game.getGameCode(), "Player1", drawing);
+        gameService.drawingsStored(game.getGameCode()).join();
+
+        // Then - the game holds the id, not the image
+        assertEquals(Map.of("Player1", "abc123"), game.getDrawings());
+    }
+
+    @Test
+    void testSubmitDrawing_PublishesTheGame() {
+        // Given
+        Game game = gameService.createGame("Player1");
+        List<Map<String, String>> published = new ArrayList<>();
+        GameRegistry registry = (GameRegistry) ReflectionTestUtils.getField(gameService, "games");
+        registry.addListener(new GameRegistry.Listener() {
+            @Override
+            public void gameUpdated(Game updated) {
+                published.add(Map.copyOf(updated.getDrawings()));
+            }
+
+            @Override
+            public void gameRemoved(String gameCode) {
+            }
+        });
+        when(drawingStore.put(any(byte[].class), eq("image/png"))).thenReturn("abc123");
+
+        // When
+        gameService.submitDrawing(game.getGameCode(), "Player1", "data:image/png;base64,iVBORw0KGgo=");
+        gameService.drawingsStored(game.getGameCode()).join();
+
+        // Then - other nodes see the drawing id
+        assertEquals(Map.of("Player1", "abc123"), published.get(published.size() - 1));
+    }
+
+    @Test
+    void testSubmitDrawing_NormalizedBeforeStoring() throws Exception {
+        // Given - a small sketch in the corner of a large transparent canvas
+        Game game = gameService.createGame("Player1");
+        BufferedImage canvas = BlankCanvasTest.canvas(true);
+        for (int x = 20; x < 120; x++) {
+            for (int y = 40; y < 50; y++) {
+                canvas.setRGB(x, y, Color.BLACK.getRGB());
+            }
+        }
+        byte[] png = BlankCanvasTest.png(canvas);
+        String drawing = "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        when(drawingStore.put(stored.capture(), eq("image/png"))).thenReturn("abc123");
+
+        // When
+        gameService.submitDrawing(game.getGameCode(), "Player1", drawing);
+        gameService.drawingsStored(game.getGameCode()).join();
+
+        // Then - only the drawn area is kept
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(stored.getValue()));
+        assertEquals(100 + 16, image.getWidth());
+        assertEquals(10 + 16, image.getHeight());
+        assertEquals("abc123", game.getDrawings().get("Player1"));
+    }
+
+    @Test
+    void testGameView_LeavesOutDrawings() {
+        // Given
+        Game game = gameService.createGame("Player1", 4, 90, true);
+        game.addDrawing("Player1", "abc123");
+
+        // When
+        GameView view = gameService.getGameView(game.getGameCode());
+
+        // Then
+        assertEquals(game.getGameCode(), view.gameCode());
+        assertEquals(List.of("Player1"), view.players());
+        assertEquals(90, view.gameDuration());
+        assertTrue(view.isPrivate());
+        assertNull(gameService.getGameView("XXXX"));
+    }
+
+    @Test
+    void testRecentGames_ReturnsHistorySummaries() {
+        // Given
+        Game finished = new Game();
+        finished.addPlayer("Player1");
+        finished.setStatus(GameStatus.FINISHED);
+        finished.setWinner("Player1");
+        when(gameRepository.findByPlayersContainingAndStatus(eq("Player1"), eq("FINISHED"), any()))
+                .thenReturn(List.of(finished));
+
+        // When
+        List<GameHistory> recent = gameService.getRecentGames("Player1");
+
+        // Then
+        assertEquals(1, recent.size());
+        assertEquals(finished.getGameCode(), recent.get(0).gameCode());
+        assertEquals("Player1", recent.get(0).winner());
+    }
+
     @Test
     void testStartGame_AlreadyPlaying() {
         // Given
@@ -219,4 +487,299 @@ class GameServiceTest {
         assertNotEquals(game1.getGameCode(), game3.getGameCode());
         assertNotEquals(game2.getGameCode(), game3.getGameCode());
     }
+
+    @Test
+    void testEvaluationScoresDrawingsConcurrently() {
+        // Given
+        Game game = gameService.createGame("Player1");
+        game.setCurrentWord("Casa");
+        for (int i = 1; i <= 4; i++) {
+            game.addDrawing("Player" + i, "data:image/png;base64,AAAA" + i);
+        }
+        when(drawingEvaluator.evaluate(anyString(), eq("Casa"))).thenAnswer(invocation ->
+                CompletableFuture.supplyAsync(() -> 50, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS)));
+
+        // When
+        long start = System.nanoTime();
+        gameService.evaluateAndBroadcastResults(game).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then - bounded by one evaluation, not the sum of four
+        assertTrue(elapsedMs < 900, "Evaluation took " + elapsedMs + " ms");
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(50, game.getScores().get("Player" + i));
+        }
+        verify(messagingTemplate, times(4)).convertAndSend(
+                eq("/topic/" + game.getGameCode() + "/scores/partial"), any(Object.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/" + game.getGameCode() + "/scores"), any(Object.class));
+    }
+
+    @Test
+    void testSlowEvaluationGetsDefaultScore() {
+        // Given
+        ReflectionTestUtils.setField(gameService, "drawingTimeoutMs", 200L);
+        Game game = gameService.createGame("Player1");
+        game.setCurrentWord("Casa");
+        game.addDrawing("Player1", "fast");
+        game.addDrawing("Player2", "slow");
+        when(drawingEvaluator.evaluate("fast", "Casa")).thenReturn(CompletableFuture.completedFuture(80));
+        when(drawingEvaluator.evaluate("slow", "Casa")).thenReturn(
+                CompletableFuture.supplyAsync(() -> 100, CompletableFuture.delayedExecutor(2000, TimeUnit.MILLISECONDS)));
+
+        // When
+        long start = System.nanoTime();
+        gameService.evaluateAndBroadcastResults(game).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertTrue(elapsedMs < 1500, "Evaluation took " + elapsedMs + " ms");
+        assertEquals(80, game.getScores().get("Player1"));
+        assertEquals(0, game.getScores().get("Player2"));
+        assertEquals("Player1", game.getWinner());
+    }
+
+    @Test
+    void testBatchModeScoresRoundInOneCall() {
+        // Given
+        ReflectionTestUtils.setField(gameService, "evaluationMode", "batch");
+        Game game = gameService.createGame("Player1");
+        game.setCurrentWord("Casa");
+        game.addDrawing("Player1", "one");
+        game.addDrawing("Player2", "two");
+        game.addDrawing("Player3", "missing");
+        when(drawingStore.dataUrl("missing")).thenReturn(null);
+        when(drawingEvaluator.evaluateAll(anyList(), eq("Casa"))).thenAnswer(invocation -> {
+            List<String> images = invocation.getArgument(0);
+            return images.stream().map(image -> CompletableFuture.completedFuture("one".equals(image) ? 30 : 90)).toList();
+        });
+
+        // When
+        gameService.evaluateAndBroadcastResults(game).join();
+
+        // Then - the missing drawing is not sent and scores 0
+        verify(drawingEvaluator).evaluateAll(
+                argThat(images -> images.size() == 2 && images.containsAll(List.of("one", "two"))), eq("Casa"));
+        verify(drawingEvaluator, never()).evaluate(anyString(), anyString());
+        assertEquals(30, game.getScores().get("Player1"));
+        assertEquals(90, game.getScores().get("Player2"));
+        assertEquals(0, game.getScores().get("Player3"));
+        assertEquals("Player2", game.getWinner());
+    }
+
+    @Test
+    void testFinishedRoundIsQueuedWhenJobsAreDurable() throws InterruptedException {
+        // Given
+        EvaluationJobStore evaluationJobs = mock(EvaluationJobStore.class);
+        ReflectionTestUtils.setField(gameService, "evaluationJobs", evaluationJobs);
+        Game game = gameService.createGame("Player1");
+        game.setGameDuration(1);
+
+        // When
+        long before = System.currentTimeMillis();
+        gameService.startGame(game.getGameCode());
+        Thread.sleep(1300);
+
+        // Then - due once the submission window is over
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+        verify(evaluationJobs).enqueue(eq(game), longThat(notBefore -> notBefore >= before + 10_000));
+    }
+
+    @Test
+    void testJobOfGameNotInMemoryKeepsRecordedScores() {
+        // Given - the round ended on a node that restarted; Player1 was scored before that
+        Game finished = new Game();
+        finished.setGameCode("GONE");
+        finished.addPlayer("Player1");
+        finished.addPlayer("Player2");
+        finished.setCurrentWord("Casa");
+        finished.addDrawing("Player1", "one");
+        finished.addDrawing("Player2", "two");
+        EvaluationJob job = EvaluationJob.of(finished, 0);
+        job.getDrawings().stream().filter(submission -> submission.getPlayer().equals("Player1"))
+                .forEach(submission -> submission.setScore(40));
+        when(drawingEvaluator.evaluate("two", "Casa")).thenReturn(CompletableFuture.completedFuture(90));
+        Map<String, Integer> recorded = new HashMap<>();
+
+        // When
+        gameService.evaluateJob(job, recorded::put).join();
+
+        // Then - only the new score is evaluated and recorded, and the result is saved
+        verify(drawingEvaluator, never()).evaluate(eq("one"), anyString());
+        assertEquals(Map.of("Player2", 90), recorded);
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepository).save(saved.capture());
+        assertEquals("GONE", saved.getValue().getGameCode());
+        assertEquals(Map.of("Player1", 40, "Player2", 90), saved.getValue().getScores());
+        assertEquals("Player2", saved.getValue().getWinner());
+    }
+
+    @Test
+    void testJobKeepsOnlyScoresTheEvaluatorGave() {
+        // Given
+        ReflectionTestUtils.setField(gameService, "drawingTimeoutMs", 200L);
+        Game finished = new Game();
+        finished.setGameCode("GONE");
+        finished.setCurrentWord("Casa");
+        finished.addDrawing("Player1", "real");
+        finished.addDrawing("Player2", "down");
+        finished.addDrawing("Player3", "slow");
+        when(drawingEvaluator.evaluate("real", "Casa")).thenReturn(CompletableFuture.completedFuture(70));
+        when(drawingEvaluator.evaluate("down", "Casa")).thenReturn(
+                CompletableFuture.failedFuture(new DrawingEvaluator.FallbackScore(60, "API down")));
+        when(drawingEvaluator.evaluate("slow", "Casa")).thenReturn(new CompletableFuture<>());
+        Map<String, Integer> recorded = new HashMap<>();
+
+        // When
+        gameService.evaluateJob(EvaluationJob.of(finished, 0), recorded::put).join();
+
+        // Then - the fallback and the timeout are shown but a retry evaluates them again
+        assertEquals(Map.of("Player1", 70), recorded);
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepository).save(saved.capture());
+        assertEquals(Map.of("Player1", 70, "Player2", 60, "Player3", 0), saved.getValue().getScores());
+    }
+
+    private void assertMissingDrawingIsNotRecorded() {
+        // Given - one drawing is not stored yet
+        Game finished = new Game();
+        finished.setGameCode("GONE");
+        finished.setCurrentWord("Casa");
+        finished.addDrawing("Player1", "real");
+        finished.addDrawing("Player2", "missing");
+        when(drawingStore.dataUrl("missing")).thenReturn(null);
+        Map<String, Integer> recorded = new HashMap<>();
+
+        // When
+        gameService.evaluateJob(EvaluationJob.of(finished, 0), recorded::put).join();
+
+        // Then - shown as 0 but left for a retry
+        assertEquals(Map.of("Player1", 70), recorded);
+        ArgumentCaptor<Game> saved = ArgumentCaptor.forClass(Game.class);
+        verify(gameRepository).save(saved.capture());
+        assertEquals(Map.of("Player1", 70, "Player2", 0), saved.getValue().getScores());
+    }
+
+    @Test
+    void testJobDoesNotRecordMissingDrawings() {
+        when(drawingEvaluator.evaluate("real", "Casa")).thenReturn(CompletableFuture.completedFuture(70));
+        assertMissingDrawingIsNotRecorded();
+    }
+
+    @Test
+    void testBatchJobDoesNotRecordMissingDrawings() {
+        ReflectionTestUtils.setField(gameService, "evaluationMode", "batch");
+        when(drawingEvaluator.evaluateAll(List.of("real"), "Casa"))
+                .thenReturn(List.of(CompletableFuture.completedFuture(70)));
+        assertMissingDrawingIsNotRecorded();
+    }
+
+    @Test
+    void testJobFailsWhenTheGameCannotBeSaved() {
+        // Given
+        Game finished = new Game();
+        finished.setGameCode("GONE");
+        finished.setCurrentWord("Casa");
+        finished.addDrawing("Player1", "one");
+        when(drawingEvaluator.evaluate("one", "Casa")).thenReturn(CompletableFuture.completedFuture(70));
+        when(gameRepository.save(any(Game.class))).thenThrow(new IllegalStateException("Mongo down"));
+
+        // When
+        CompletableFuture<Void> evaluated = gameService.evaluateJob(EvaluationJob.of(finished, 0), (player, score) -> { });
+
+        // Then - the scores still reach the players, and the worker releases the job
+        CompletionException error = assertThrows(CompletionException.class, evaluated::join);
+        assertEquals("Mongo down", error.getCause().getMessage());
+        verify(messagingTemplate).convertAndSend(eq("/topic/GONE/scores"), any(Object.class));
+    }
+
+    @Test
+    void testClientClockSendsOnlyRoundEvents() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(gameService, "timerMode", "client");
+        Game game = gameService.createGame("Player1");
+        game.setGameDuration(1);
+        String gameCode = game.getGameCode();
+
+        // When
+        long before = System.currentTimeMillis();
+        gameService.startGame(gameCode);
+
+        // Then - one start event with the end time, no per-second ticks
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/" + gameCode + "/round"), events.capture());
+        RoundClock start = (RoundClock) events.getValue();
+        assertEquals("start", start.event());
+        assertTrue(start.roundEndsAt() >= before + 1000);
+
+        Thread.sleep(1300);
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/" + gameCode + "/timer"), any(Object.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/" + gameCode + "/round"),
+                argThat((Object event) -> event instanceof RoundClock clock && "finish".equals(clock.event())));
+    }
+
+    @Test
+    void testPauseStopsClientClockUntilResumed() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(gameService, "timerMode", "client");
+        Game game = gameService.createGame("Player1");
+        game.setGameDuration(1);
+        gameService.startGame(game.getGameCode());
+
+        // When
+        assertTrue(gameService.pauseTimer(game.getGameCode()));
+        Thread.sleep(1300);
+
+        // Then
+        assertEquals(GameStatus.PLAYING, game.getStatus());
+        assertEquals(0, game.getRoundEndsAt());
+        assertEquals(1, game.getTimeRemaining());
+        assertFalse(gameService.pauseTimer(game.getGameCode()));
+
+        assertTrue(gameService.resumeTimer(game.getGameCode()));
+        assertTrue(game.getRoundEndsAt() > System.currentTimeMillis());
+        Thread.sleep(1300);
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+    }
+
+    @Test
+    void testPauseKeepsThePartOfASecondLeft() throws InterruptedException {
+        // Given - a broadcast clock paused 300 ms into a 2 s round
+        Game game = gameService.createGame("Player1");
+        game.setGameDuration(2);
+        gameService.startGame(game.getGameCode());
+        Thread.sleep(300);
+        assertTrue(gameService.pauseTimer(game.getGameCode()));
+        Thread.sleep(200);
+
+        // When
+        long resumedAt = System.currentTimeMillis();
+        assertTrue(gameService.resumeTimer(game.getGameCode()));
+
+        // Then - the round ends 1.7 s later, not 1 s later
+        long left = game.getRoundEndsAt() - resumedAt;
+        assertTrue(left > 1550 && left < 1800, "Round ends in " + left + " ms");
+        Thread.sleep(1300);
+        assertEquals(GameStatus.PLAYING, game.getStatus());
+        Thread.sleep(1000);
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+    }
+
+    @Test
+    void testExtendMovesRoundEnd() {
+        // Given
+        ReflectionTestUtils.setField(gameService, "timerMode", "client");
+        Game game = gameService.createGame("Player1");
+        gameService.startGame(game.getGameCode());
+        long endsAt = game.getRoundEndsAt();
+
+        // When
+        boolean extended = gameService.extendTimer(game.getGameCode(), 15);
+
+        // Then
+        assertTrue(extended);
+        assertEquals(endsAt + 15_000, game.getRoundEndsAt());
+        assertTrue(game.getTimeRemaining() > 60);
+        assertFalse(gameService.extendTimer("XXXX", 15));
+    }
 }
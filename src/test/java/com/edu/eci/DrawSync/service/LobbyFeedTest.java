@@ -0,0 +1,131 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.DTO.LobbyChange;
+import com.edu.eci.DrawSync.model.DTO.LobbyGame;
+import com.edu.eci.DrawSync.model.DTO.LobbyUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LobbyFeedTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private GameAffinity gameAffinity;
+
+    @InjectMocks
+    private LobbyFeed lobbyFeed;
+
+    @BeforeEach
+    void setUp() {
+        // Flushed by hand in these tests
+        ReflectionTestUtils.setField(lobbyFeed, "intervalMs", 60_000L);
+        lenient().when(gameService.getAvailableGamesVersion()).thenReturn(7L);
+    }
+
+    private static LobbyChange change(String type, String code, int players) {
+        LobbyGame game = "added".equals(type) || "updated".equals(type)
+                ? new LobbyGame(code, "Creator", players, 4, 60, null)
+                : null;
+        return new LobbyChange(type, code, game);
+    }
+
+    private LobbyUpdate flushed() {
+        lobbyFeed.flush();
+        ArgumentCaptor<LobbyUpdate> captor = ArgumentCaptor.forClass(LobbyUpdate.class);
+        verify(messagingTemplate).convertAndSend(eq(LobbyFeed.TOPIC), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testRapidChangesAreCoalescedPerGame() {
+        // Given
+        lobbyFeed.enqueue(change("updated", "AAAA", 2));
+        lobbyFeed.enqueue(change("added", "BBBB", 1));
+        lobbyFeed.enqueue(change("updated", "AAAA", 3));
+        lobbyFeed.enqueue(change("updated", "BBBB", 2));
+
+        // When
+        LobbyUpdate update = flushed();
+
+        // Then - one change per game with the latest state, new games stay "added"
+        assertEquals(7L, update.version());
+        assertFalse(update.snapshot());
+        assertEquals(List.of(change("updated", "AAAA", 3), change("added", "BBBB", 2)), update.changes());
+    }
+
+    @Test
+    void testGameAddedAndRemovedInOneBatchIsNotSent() {
+        // Given
+        lobbyFeed.enqueue(change("added", "AAAA", 1));
+        lobbyFeed.enqueue(change("started", "AAAA", 1));
+
+        // When
+        lobbyFeed.flush();
+
+        // Then
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void testRelistedGameIsSentAsUpdate() {
+        // Given - a full game drops off the list and comes back after a leave
+        lobbyFeed.enqueue(change("removed", "AAAA", 0));
+        lobbyFeed.enqueue(change("added", "AAAA", 3));
+
+        // When
+        LobbyUpdate update = flushed();
+
+        // Then
+        assertEquals(List.of(change("updated", "AAAA", 3)), update.changes());
+    }
+
+    @Test
+    void testRelayPublishesOnlyOwnedGames() {
+        // Given
+        ReflectionTestUtils.setField(lobbyFeed, "brokerMode", "relay");
+        when(gameAffinity.isLocal("AAAA")).thenReturn(true);
+        when(gameAffinity.isLocal("BBBB")).thenReturn(false);
+
+        // When
+        lobbyFeed.enqueue(change("added", "AAAA", 1));
+        lobbyFeed.enqueue(change("added", "BBBB", 1));
+        LobbyUpdate update = flushed();
+
+        // Then
+        assertEquals(List.of(change("added", "AAAA", 1)), update.changes());
+    }
+
+    @Test
+    void testRelaySnapshotLetsEveryBatchThrough() {
+        // Given - batches will carry the versions of other nodes
+        ReflectionTestUtils.setField(lobbyFeed, "brokerMode", "relay");
+        when(gameService.getLobbySnapshot())
+                .thenReturn(new LobbyUpdate(9, true, List.of(change("added", "AAAA", 1))));
+
+        // When
+        LobbyUpdate snapshot = lobbyFeed.snapshot();
+
+        // Then
+        assertEquals(0L, snapshot.version());
+        assertEquals(List.of(change("added", "AAAA", 1)), snapshot.changes());
+    }
+}
@@ -0,0 +1,131 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+import com.edu.eci.DrawSync.model.DTO.LobbyChange;
+import com.edu.eci.DrawSync.model.DTO.LobbyUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyIndexTest {
+
+    private final LobbyIndex index = new LobbyIndex();
+
+    private Game lobby(String code, int players, int maxPlayers, long createdAt) {
+        Game game = new Game();
+        game.setGameCode(code);
+        game.setMaxPlayers(maxPlayers);
+        game.setCreatedAt(Instant.ofEpochMilli(createdAt).toString());
+        for (int i = 0; i < players; i++) {
+            game.addPlayer(code + "-player" + i);
+        }
+        index.gameUpdated(game);
+        return game;
+    }
+
+    @Test
+    void testPagesInAgeOrder() {
+        // Given
+        Game a = lobby("AAAA", 1, 4, 1000);
+        Game b = lobby("BBBB", 1, 4, 2000);
+        Game c = lobby("CCCC", 1, 4, 3000);
+
+        // When
+        LobbyIndex.Page first = index.page(LobbyIndex.Order.AGE, null, 2);
+        LobbyIndex.Page second = index.page(LobbyIndex.Order.AGE, first.nextCursor(), 2);
+
+        // Then
+        assertEquals(List.of(a, b), first.games());
+        assertNotNull(first.nextCursor());
+        assertEquals(List.of(c), second.games());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testPagesInFillOrder() {
+        // Given
+        Game half = lobby("AAAA", 2, 4, 1000);
+        Game almost = lobby("BBBB", 2, 3, 2000);
+        Game empty = lobby("CCCC", 0, 2, 3000);
+
+        // When
+        LobbyIndex.Page page = index.page(LobbyIndex.Order.FILL, null, 10);
+
+        // Then
+        assertEquals(List.of(almost, half, empty), page.games());
+    }
+
+    @Test
+    void testCursorSurvivesRemovalOfLastEntry() {
+        // Given
+        lobby("AAAA", 1, 4, 1000);
+        lobby("BBBB", 1, 4, 2000);
+        Game c = lobby("CCCC", 1, 4, 3000);
+        LobbyIndex.Page first = index.page(LobbyIndex.Order.AGE, null, 2);
+
+        // When - the last game of the page is removed before the next page is read
+        index.gameRemoved("BBBB");
+
+        // Then
+        assertEquals(List.of(c), index.page(LobbyIndex.Order.AGE, first.nextCursor(), 2).games());
+    }
+
+    @Test
+    void testFullPrivateAndStartedGamesAreNotListed() {
+        // Given
+        Game game = lobby("AAAA", 1, 2, 1000);
+        long version = index.version();
+
+        // When
+        game.addPlayer("Other");
+        index.gameUpdated(game);
+
+        // Then
+        assertEquals(0, index.size());
+        assertTrue(index.version() > version);
+
+        // When - a change to a game that is not listed
+        version = index.version();
+        game.setStatus(GameStatus.PLAYING);
+        index.gameUpdated(game);
+        Game hidden = new Game();
+        hidden.setPrivate(true);
+        index.gameUpdated(hidden);
+
+        // Then - the version stays, so clients keep their cached list
+        assertEquals(version, index.version());
+    }
+
+    @Test
+    void testChangesAndSnapshot() {
+        // Given
+        List<LobbyChange> changes = new ArrayList<>();
+        index.addChangeListener(changes::add);
+
+        // When
+        Game game = lobby("AAAA", 1, 4, 1000);
+        game.addPlayer("Other");
+        index.gameUpdated(game);
+        LobbyUpdate snapshot = index.snapshot();
+        game.setStatus(GameStatus.PLAYING);
+        index.gameUpdated(game);
+
+        // Then
+        assertEquals(List.of("added", "updated", "started"), changes.stream().map(LobbyChange::type).toList());
+        assertEquals(2, changes.get(1).game().players());
+        assertNull(changes.get(2).game());
+        assertTrue(snapshot.snapshot());
+        assertEquals(2, snapshot.version());
+        assertEquals("AAAA", snapshot.changes().get(0).gameCode());
+    }
+
+    @Test
+    void testInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> index.page(LobbyIndex.Order.AGE, "nope", 10));
+    }
+}
@@ -0,0 +1,78 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Evaluations per second of the local engine on 400x400 drawings, with and
+ * without reference drawings for the word, on one thread and on every core.
+ * Run with {@code mvn test -Pbenchmark -Dtest=LocalDrawingEvaluatorBenchmark}.
+ */
+@Tag("benchmark")
+class LocalDrawingEvaluatorBenchmark {
+
+    private static final int EVALUATIONS = 500;
+
+    @TempDir
+    Path references;
+
+    @Test
+    void measureThroughput() throws Exception {
+        LocalDrawingEvaluator evaluator = new LocalDrawingEvaluator();
+        ReflectionTestUtils.setField(evaluator, "referencesDir", references.toString());
+        Files.createDirectories(references.resolve("sol"));
+        for (int i = 0; i < 10; i++) {
+            Files.write(references.resolve("sol").resolve(i + ".png"),
+                    LocalDrawingEvaluatorTest.circle(20 + i * 5, 20, 200 + i * 10));
+        }
+        List<byte[]> drawings = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            drawings.add(i % 2 == 0
+                    ? LocalDrawingEvaluatorTest.circle(10 * i, 30, 150 + 5 * i)
+                    : LocalDrawingEvaluatorTest.house(10 * i, 20, 200));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // Warm up
+        run(evaluator, drawings, "sol", 1);
+
+        System.out.printf("%-28s %14s %14s%n", "evaluations/s", "1 thread", cores + " threads");
+        double single = run(evaluator, drawings, "sol", 1);
+        double all = run(evaluator, drawings, "sol", cores);
+        System.out.printf("%-28s %14.0f %14.0f   (%.0f per core)%n", "10 references", single, all, all / cores);
+        assertTrue(single > 50, "Only " + single + " evaluations/s");
+    }
+
+    private static double run(LocalDrawingEvaluator evaluator, List<byte[]> drawings, String word, int threads)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            done.add(pool.submit(() -> {
+                for (int i = 0; i < EVALUATIONS; i++) {
+                    evaluator.score(drawings.get((i + offset) % drawings.size()), word);
+                }
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        pool.shutdown();
+        return (double) EVALUATIONS * threads / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,126 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDrawingEvaluatorTest {
+
+    private final LocalDrawingEvaluator evaluator = new LocalDrawingEvaluator();
+
+    @TempDir
+    Path references;
+
+    static byte[] draw(Consumer<Graphics2D> strokes) throws IOException {
+        BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 400, 400);
+        g.setColor(Color.BLACK);
+        g.setStroke(new BasicStroke(6));
+        strokes.accept(g);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    static byte[] circle(int x, int y, int size) throws IOException {
+        return draw(g -> g.drawOval(x, y, size, size));
+    }
+
+    static byte[] house(int x, int y, int size) throws IOException {
+        return draw(g -> {
+            g.drawRect(x, y + size / 2, size, size / 2);
+            g.drawLine(x, y + size / 2, x + size / 2, y);
+            g.drawLine(x + size / 2, y, x + size, y + size / 2);
+        });
+    }
+
+    private void reference(String word, byte[] png) throws IOException {
+        Files.createDirectories(references.resolve(word));
+        Files.write(references.resolve(word).resolve("1.png"), png);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(evaluator, "referencesDir", references.toString());
+        reference("sol", circle(50, 50, 300));
+        reference("arbol", draw(g -> {
+            g.drawLine(200, 200, 200, 380);
+            g.drawOval(100, 20, 200, 180);
+        }));
+    }
+
+    @Test
+    void testDrawingCloseToReferenceScoresHigh() throws IOException {
+        // Given - smaller, elsewhere on the canvas, and asked with accents and capitals
+        byte[] sun = circle(180, 20, 120);
+        byte[] house = house(60, 60, 250);
+
+        // When
+        int sunAsSun = evaluator.score(sun, "Sol");
+        int houseAsSun = evaluator.score(house, "Sol");
+        int sunAsTree = evaluator.score(sun, "Árbol");
+
+        // Then
+        assertTrue(sunAsSun >= 80, "Sun scored " + sunAsSun);
+        assertTrue(houseAsSun < sunAsSun - 20, "House scored " + houseAsSun + " as a sun");
+        assertTrue(sunAsTree < sunAsSun, "Sun scored " + sunAsTree + " as a tree");
+    }
+
+    @Test
+    void testWithoutReferencesEffortIsOnlyAFallback() throws IOException {
+        // Given
+        byte[] line = draw(g -> g.drawLine(100, 200, 160, 200));
+        byte[] house = house(60, 60, 250);
+
+        // When
+        DrawingEvaluator.FallbackScore lineScore = assertThrows(DrawingEvaluator.FallbackScore.class,
+                () -> evaluator.score(line, "Barco"));
+        DrawingEvaluator.FallbackScore houseScore = assertThrows(DrawingEvaluator.FallbackScore.class,
+                () -> evaluator.score(house, "Barco"));
+
+        // Then - detail still ranks above a single line
+        assertTrue(lineScore.getScore() < houseScore.getScore(),
+                "Line " + lineScore.getScore() + ", house " + houseScore.getScore());
+    }
+
+    @Test
+    void testStartupFailsWithoutReferences() throws IOException {
+        // Given
+        LocalDrawingEvaluator unset = new LocalDrawingEvaluator();
+        LocalDrawingEvaluator empty = new LocalDrawingEvaluator();
+        ReflectionTestUtils.setField(empty, "referencesDir", Files.createDirectory(references.resolve("empty")).toString());
+
+        // When/Then
+        assertThrows(IllegalStateException.class, unset::checkReferences);
+        assertThrows(IllegalStateException.class, empty::checkReferences);
+        evaluator.checkReferences();
+    }
+
+    @Test
+    void testBlankAndUnreadableDrawingsScoreZero() throws IOException {
+        // Given
+        String blank = "data:image/png;base64," + Base64.getEncoder().encodeToString(draw(g -> { }));
+
+        // Then
+        assertEquals(0, evaluator.evaluate(blank, "Sol").join());
+        assertEquals(0, evaluator.evaluate("not a data url", "Sol").join());
+    }
+}
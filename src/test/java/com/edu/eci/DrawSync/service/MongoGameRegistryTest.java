@@ -0,0 +1,241 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Game;
+import com.edu.eci.DrawSync.model.GameStatus;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoGameRegistryTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private GameAffinity gameAffinity;
+
+    @Mock
+    private MongoConverter converter;
+
+    @InjectMocks
+    private MongoGameRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        lenient().when(gameAffinity.isLocal(anyString())).thenReturn(true);
+        // Nothing stored yet: the first write inserts, later ones update the expected version
+        lenient().when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(MongoGameRegistry.COLLECTION)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, new BsonString("inserted")));
+        lenient().when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MongoGameRegistry.COLLECTION)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    private Game game(String code, GameStatus status) {
+        Game game = new Game();
+        game.setGameCode(code);
+        game.setStatus(status);
+        return game;
+    }
+
+    private static Document stored(String code, long version) {
+        return new Document("_id", code).append(MongoGameRegistry.VERSION, version);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChangeStreamDocument<Document> change(OperationType type, String code, Document fullDocument) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(code)));
+        lenient().when(change.getOperationType()).thenReturn(type);
+        lenient().when(change.getFullDocument()).thenReturn(fullDocument);
+        return change;
+    }
+
+    @Test
+    void testOwnedGamesAreServedFromMemory() {
+        // Given
+        Game game = game("ABCD", GameStatus.LOBBY);
+
+        // When
+        registry.put(game);
+
+        // Then - same instance, written through once, never read back
+        assertSame(game, registry.get("ABCD"));
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(MongoGameRegistry.COLLECTION));
+        verify(mongoTemplate, never()).findById(anyString(), eq(Game.class), anyString());
+    }
+
+    @Test
+    void testRemoteGamesAreCachedUntilTtl() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(registry, "nearCacheTtlMs", 100L);
+        when(mongoTemplate.findById("WXYZ", Game.class, MongoGameRegistry.COLLECTION))
+                .thenReturn(game("WXYZ", GameStatus.LOBBY));
+
+        // When
+        registry.get("WXYZ");
+        registry.get("WXYZ");
+        Thread.sleep(150);
+        registry.get("WXYZ");
+
+        // Then
+        verify(mongoTemplate, times(2)).findById("WXYZ", Game.class, MongoGameRegistry.COLLECTION);
+    }
+
+    @Test
+    void testFindByStatusPrefersOwnedInstance() {
+        // Given - the stored copy of ABCD is behind the one in memory
+        Game owned = game("ABCD", GameStatus.LOBBY);
+        registry.put(owned);
+        owned.setStatus(GameStatus.PLAYING);
+        when(mongoTemplate.find(any(Query.class), eq(Game.class), eq(MongoGameRegistry.COLLECTION)))
+                .thenReturn(new ArrayList<>(List.of(game("ABCD", GameStatus.LOBBY), game("WXYZ", GameStatus.LOBBY))));
+
+        // When
+        List<Game> lobbies = registry.findByStatus(GameStatus.LOBBY);
+
+        // Then
+        assertEquals(1, lobbies.size());
+        assertEquals("WXYZ", lobbies.get(0).getGameCode());
+    }
+
+    @Test
+    void testChangesFromOtherNodesRefreshCacheAndNotify() {
+        // Given
+        List<String> events = new ArrayList<>();
+        registry.addListener(new GameRegistry.Listener() {
+            @Override
+            public void gameUpdated(Game game) {
+                events.add("updated " + game.getGameCode());
+            }
+
+            @Override
+            public void gameRemoved(String gameCode) {
+                events.add("removed " + gameCode);
+            }
+        });
+        Document stored = new Document("_id", "WXYZ");
+        Game remote = game("WXYZ", GameStatus.LOBBY);
+        when(converter.read(Game.class, stored)).thenReturn(remote);
+
+        // When
+        registry.apply(change(OperationType.UPDATE, "WXYZ", stored));
+
+        // Then - served from the cache without a read
+        assertSame(remote, registry.get("WXYZ"));
+        verify(mongoTemplate, never()).findById(anyString(), eq(Game.class), anyString());
+
+        registry.apply(change(OperationType.DELETE, "WXYZ", null));
+        assertEquals(List.of("updated WXYZ", "removed WXYZ"), events);
+    }
+
+    @Test
+    void testOwnWritesAreIgnoredInChangeStream() {
+        // Given
+        Game owned = game("ABCD", GameStatus.LOBBY);
+        registry.put(owned);
+
+        // When
+        registry.apply(change(OperationType.UPDATE, "ABCD", stored("ABCD", 1)));
+
+        // Then
+        assertSame(owned, registry.get("ABCD"));
+        verify(converter, never()).read(eq(Game.class), any(Document.class));
+    }
+
+    @Test
+    void testNewerVersionFromAnotherNodeReplacesOwnedCopy() {
+        // Given
+        registry.put(game("ABCD", GameStatus.LOBBY));
+        Document newer = stored("ABCD", 2);
+        Game theirs = game("ABCD", GameStatus.PLAYING);
+        when(converter.read(Game.class, newer)).thenReturn(theirs);
+
+        // When
+        registry.apply(change(OperationType.UPDATE, "ABCD", newer));
+
+        // Then
+        assertSame(theirs, registry.get("ABCD"));
+    }
+
+    @Test
+    void testConflictingWriteDropsTheOwnedCopy() {
+        // Given - another node wrote the game after our first write
+        Game owned = game("ABCD", GameStatus.LOBBY);
+        registry.put(owned);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MongoGameRegistry.COLLECTION)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        Game stored = game("ABCD", GameStatus.PLAYING);
+        when(mongoTemplate.findById("ABCD", Game.class, MongoGameRegistry.COLLECTION)).thenReturn(stored);
+
+        // When
+        registry.put(owned);
+
+        // Then - the stored copy wins
+        assertSame(stored, registry.get("ABCD"));
+    }
+
+    @Test
+    void testGamesOfOtherNodesAreNotPinned() {
+        // Given
+        when(gameAffinity.isLocal("WXYZ")).thenReturn(false);
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(MongoGameRegistry.COLLECTION)))
+                .thenReturn(stored("WXYZ", 3));
+        registry.put(game("WXYZ", GameStatus.LOBBY));
+        Document newer = stored("WXYZ", 4);
+        Game theirs = game("WXYZ", GameStatus.PLAYING);
+        when(converter.read(Game.class, newer)).thenReturn(theirs);
+
+        // When - the owner's next write arrives
+        registry.apply(change(OperationType.UPDATE, "WXYZ", newer));
+
+        // Then
+        assertSame(theirs, registry.get("WXYZ"));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(MongoGameRegistry.COLLECTION));
+    }
+
+    @Test
+    void testFinishedGamesStayPinnedUntilReleased() {
+        // Given
+        ReflectionTestUtils.setField(registry, "nearCacheTtlMs", 0L);
+        Game game = game("ABCD", GameStatus.LOBBY);
+        registry.put(game);
+        Game stored = game("ABCD", GameStatus.FINISHED);
+        lenient().when(mongoTemplate.findById("ABCD", Game.class, MongoGameRegistry.COLLECTION)).thenReturn(stored);
+
+        // When - the round ends; drawings at the buzzer must still reach this instance
+        game.setStatus(GameStatus.FINISHED);
+        registry.put(game);
+
+        // Then
+        assertSame(game, registry.get("ABCD"));
+
+        // When - the round is scored
+        registry.release("ABCD");
+
+        // Then - read from Mongo like any other game
+        assertSame(stored, registry.get("ABCD"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.edu.eci.DrawSync.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAIClientTest {
+
+    private HttpServer server;
+    private final OpenAIClient client = client();
+
+    // A client with its own guard, as the application context would build it
+    static OpenAIClient client() {
+        OpenAIClient client = new OpenAIClient();
+        ReflectionTestUtils.setField(client, "guard", OpenAIGuardTest.guard());
+        return client;
+    }
+
+    // Stands in for the API: answers every request with the given status and message content after a delay
+    static HttpServer stub(int status, String content, long delayMs) throws IOException {
+        return stub(status, request -> content, delayMs);
+    }
+
+    // Same, with the content chosen from the request body
+    static HttpServer stub(int status, UnaryOperator<String> content, long delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat/completions", exchange -> answer(exchange, status, content, delayMs));
+        server.start();
+        return server;
+    }
+
+    private static void answer(HttpExchange exchange, int status, UnaryOperator<String> content, long delayMs)
+            throws IOException {
+        try {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Thread.sleep(delayMs);
+            ObjectNode body = OpenAIClient.MAPPER.createObjectNode();
+            body.putArray("choices").addObject().putObject("message")
+                    .put("role", "assistant")
+                    .put("content", content.apply(request));
+            byte[] bytes = OpenAIClient.MAPPER.writeValueAsBytes(body);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static String url(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+    }
+
+    private void startStub(int status, String content, long delayMs) throws IOException {
+        server = stub(status, content, delayMs);
+        ReflectionTestUtils.setField(client, "url", url(server));
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(client, "apiKey", "test-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        client.shutdown();
+    }
+
+    private static ObjectNode request() {
+        return OpenAIClient.MAPPER.createObjectNode().put("model", "gpt-4o-mini");
+    }
+
+    @Test
+    void testReturnsContentOfFirstChoice() throws IOException {
+        // Given
+        startStub(200, "Bicicleta", 0);
+
+        // When
+        String content = client.complete(request()).join();
+
+        // Then
+        assertEquals("Bicicleta", content);
+    }
+
+    @Test
+    void testErrorStatusFailsTheFuture() throws IOException {
+        // Given
+        startStub(429, "", 0);
+
+        // When
+        CompletableFuture<String> content = client.complete(request());
+
+        // Then
+        CompletionException e = assertThrows(CompletionException.class, content::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testSlowAnswerTimesOut() throws IOException {
+        // Given - not retried, so the time is that of one attempt
+        ReflectionTestUtils.setField(client, "requestTimeoutMs", 200L);
+        ReflectionTestUtils.setField(ReflectionTestUtils.getField(client, "guard"), "maxAttempts", 1);
+        startStub(200, "Pizza", 2000);
+
+        // When
+        long start = System.nanoTime();
+        CompletableFuture<String> content = client.complete(request());
+
+        // Then
+        assertThrows(CompletionException.class, content::join);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1500);
+    }
+
+    @Test
+    void testConcurrentRequestsDoNotWaitForClientThreads() throws IOException {
+        // Given - one client thread and twenty answers that each take 300 ms
+        ReflectionTestUtils.setField(client, "clientThreads", 1);
+        startStub(200, "42", 300);
+
+        // When
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> answers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            answers.add(client.complete(request()));
+        }
+        CompletableFuture.allOf(answers.toArray(new CompletableFuture[0])).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then - bounded by one answer, not twenty
+        assertTrue(elapsedMs < 2000, "Requests took " + elapsedMs + " ms");
+        answers.forEach(answer -> assertEquals("42", answer.join()));
+    }
+}
@@ -0,0 +1,194 @@
+package com.edu.eci.DrawSync.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAIGuardTest {
+
+    private final OpenAIGuard guard = guard();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    // A guard with its own registry, as the application context would build it
+    static OpenAIGuard guard() {
+        OpenAIGuard guard = new OpenAIGuard();
+        ReflectionTestUtils.setField(guard, "meterRegistry", new SimpleMeterRegistry());
+        guard.registerMetrics();
+        return guard;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(guard, "backoffMs", 1L);
+    }
+
+    private Supplier<CompletableFuture<String>> failing(Exception error) {
+        return () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(error);
+        };
+    }
+
+    private Supplier<CompletableFuture<String>> answering() {
+        return () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        };
+    }
+
+    private static Throwable failure(CompletableFuture<String> result) {
+        return assertThrows(CompletionException.class, result::join).getCause();
+    }
+
+    private double counted(String outcome) {
+        return guard.getMeterRegistry().counter("drawsync.openai.calls", "outcome", outcome).count();
+    }
+
+    @Test
+    void testTransientFailuresAreRetried() {
+        // Given - a timeout, then an answer
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<CompletableFuture<String>> call = () -> attempts.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new HttpTimeoutException("timed out"))
+                : CompletableFuture.completedFuture("ok");
+
+        // When
+        String answer = guard.execute(call).join();
+
+        // Then
+        assertEquals("ok", answer);
+        assertEquals(2, attempts.get());
+        assertEquals(1, guard.getMeterRegistry().counter("drawsync.openai.retries").count());
+        assertEquals(1, counted("success"));
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() {
+        // When
+        Throwable cause = failure(guard.execute(failing(new OpenAIClient.ApiStatusException(400))));
+
+        // Then
+        assertInstanceOf(OpenAIClient.ApiStatusException.class, cause);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testAnswersTheApiRejectedDoNotOpenTheCircuit() {
+        // Given
+        ReflectionTestUtils.setField(guard, "failureThreshold", 2);
+
+        // When - bad requests, a bad key and an answer without choices
+        failure(guard.execute(failing(new OpenAIClient.ApiStatusException(400))));
+        failure(guard.execute(failing(new OpenAIClient.ApiStatusException(401))));
+        failure(guard.execute(failing(new IllegalStateException("OpenAI API returned no choices"))));
+
+        // Then
+        assertEquals(OpenAIGuard.State.CLOSED, guard.state());
+        assertEquals("ok", guard.execute(answering()).join());
+    }
+
+    @Test
+    void testRetriesStopWhenTheBudgetIsSpent() {
+        // Given - room for two retries and no refill from new calls
+        ReflectionTestUtils.setField(guard, "retryBudgetReserve", 2);
+        ReflectionTestUtils.setField(guard, "retryBudgetRatio", 0.0);
+        ReflectionTestUtils.setField(guard, "failureThreshold", 100);
+
+        // When - five calls that all fail with a 503
+        for (int i = 0; i < 5; i++) {
+            failure(guard.execute(failing(new OpenAIClient.ApiStatusException(503))));
+        }
+
+        // Then - five first attempts plus the two budgeted retries
+        assertEquals(7, calls.get());
+    }
+
+    @Test
+    void testOpenCircuitShortCircuitsUntilTrialSucceeds() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(guard, "failureThreshold", 2);
+        ReflectionTestUtils.setField(guard, "maxAttempts", 1);
+        ReflectionTestUtils.setField(guard, "openMs", 200L);
+        failure(guard.execute(failing(new HttpTimeoutException("timed out"))));
+        failure(guard.execute(failing(new HttpTimeoutException("timed out"))));
+
+        // When
+        Throwable cause = failure(guard.execute(answering()));
+
+        // Then - rejected without calling
+        assertInstanceOf(OpenAIGuard.RejectedException.class, cause);
+        assertEquals(2, calls.get());
+        assertEquals(OpenAIGuard.State.OPEN, guard.state());
+        assertEquals(1, counted("short_circuited"));
+
+        // When - the open period is over and the trial call succeeds
+        Thread.sleep(250);
+        assertEquals(OpenAIGuard.State.HALF_OPEN, guard.state());
+        assertEquals("ok", guard.execute(answering()).join());
+
+        // Then
+        assertEquals(OpenAIGuard.State.CLOSED, guard.state());
+        assertEquals(3, guard.getMeterRegistry().get("drawsync.openai.breaker.transitions").counters().size());
+    }
+
+    @Test
+    void testFailedTrialOpensTheCircuitAgain() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(guard, "failureThreshold", 1);
+        ReflectionTestUtils.setField(guard, "maxAttempts", 1);
+        ReflectionTestUtils.setField(guard, "openMs", 100L);
+        failure(guard.execute(failing(new HttpTimeoutException("timed out"))));
+        Thread.sleep(150);
+
+        // When
+        failure(guard.execute(failing(new HttpTimeoutException("timed out"))));
+
+        // Then
+        assertEquals(OpenAIGuard.State.OPEN, guard.state());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testCallsBeyondTheRateAreRejected() {
+        // Given - two tokens, one more per second, no waiting
+        ReflectionTestUtils.setField(guard, "burst", 2);
+        ReflectionTestUtils.setField(guard, "ratePerSecond", 1.0);
+        ReflectionTestUtils.setField(guard, "maxWaitMs", 0L);
+
+        // When
+        guard.execute(answering()).join();
+        guard.execute(answering()).join();
+        Throwable cause = failure(guard.execute(answering()));
+
+        // Then
+        assertInstanceOf(OpenAIGuard.RejectedException.class, cause);
+        assertEquals(2, calls.get());
+        assertEquals(1, counted("rate_limited"));
+    }
+
+    @Test
+    void testCallsWaitForTheNextToken() {
+        // Given - one token, ten per second
+        ReflectionTestUtils.setField(guard, "burst", 1);
+        ReflectionTestUtils.setField(guard, "ratePerSecond", 10.0);
+
+        // When
+        long start = System.nanoTime();
+        guard.execute(answering()).join();
+        guard.execute(answering()).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(2, calls.get());
+        assertTrue(elapsedMs >= 90, "Second call was sent after " + elapsedMs + " ms");
+    }
+}
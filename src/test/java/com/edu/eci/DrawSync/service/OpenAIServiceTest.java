@@ -0,0 +1,137 @@
+package com.edu.eci.DrawSync.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAIServiceTest {
+
+    private final OpenAIService openAIService = new OpenAIService();
+
+    private static String dataUrl(byte[] png) {
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+    }
+
+    @Test
+    void testBlankDrawingScoresZeroWithoutApiCall() throws Exception {
+        // Given - no API key is set, a call would fall back to a random score of at least 40
+        String blank = dataUrl(BlankCanvasTest.png(BlankCanvasTest.canvas(true)));
+
+        // When
+        int score = openAIService.evaluateDrawing(blank, "Casa");
+
+        // Then
+        assertEquals(0, score);
+    }
+
+    private static String drawing() throws Exception {
+        return drawing(300);
+    }
+
+    // A horizontal line at row y, so drawings at different rows have different hashes
+    private static String drawing(int y) throws Exception {
+        BufferedImage image = BlankCanvasTest.canvas(false);
+        for (int x = 100; x < 700; x++) {
+            image.setRGB(x, y, Color.BLACK.getRGB());
+            image.setRGB(x, y + 1, Color.BLACK.getRGB());
+        }
+        return dataUrl(BlankCanvasTest.png(image));
+    }
+
+    private void useStub(HttpServer server, OpenAIClient client) {
+        ReflectionTestUtils.setField(client, "url", OpenAIClientTest.url(server));
+        ReflectionTestUtils.setField(openAIService, "client", client);
+    }
+
+    @Test
+    void testApiScoreIsReturnedAndCached() throws Exception {
+        // Given
+        HttpServer server = OpenAIClientTest.stub(200, "63", 0);
+        OpenAIClient client = OpenAIClientTest.client();
+        useStub(server, client);
+
+        try {
+            // When
+            int score = openAIService.evaluateDrawingAsync(drawing(), "Casa").join();
+
+            // Then
+            assertEquals(63, score);
+            assertEquals(1, openAIService.getEvaluationCache().size());
+        } finally {
+            server.stop(0);
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void testCachedScoreIsReused() throws Exception {
+        // Given
+        String drawing = drawing();
+        byte[] png = DrawingStore.decodeDataUrl(drawing).data();
+        openAIService.getEvaluationCache().put(DrawingStore.contentId(png), "Casa", 77);
+
+        // When
+        int score = openAIService.evaluateDrawing(drawing, "casa");
+
+        // Then
+        assertEquals(77, score);
+    }
+
+    @Test
+    void testBatchScoresDrawingsTogetherAndRetriesMissingOnesAlone() throws Exception {
+        // Given - the batch answer has no valid score for the third drawing
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = OpenAIClientTest.stub(200, request -> {
+            requests.incrementAndGet();
+            return request.contains("response_format")
+                    ? "{\"scores\": [{\"drawing\": 1, \"score\": 70}, {\"drawing\": 2, \"score\": 80}, {\"drawing\": 3, \"score\": \"alto\"}]}"
+                    : "55";
+        }, 0);
+        OpenAIClient client = OpenAIClientTest.client();
+        useStub(server, client);
+        String blank = dataUrl(BlankCanvasTest.png(BlankCanvasTest.canvas(true)));
+
+        try {
+            // When
+            List<Integer> scores = openAIService.evaluateDrawingsAsync(
+                    List.of(drawing(100), blank, drawing(200), drawing(300)), "Casa")
+                    .stream().map(CompletableFuture::join).toList();
+
+            // Then - one batch request and one request for the drawing it left out, whose score alone is cached
+            assertEquals(List.of(70, 0, 80, 55), scores);
+            assertEquals(2, requests.get());
+            assertEquals(1, openAIService.getEvaluationCache().size());
+        } finally {
+            server.stop(0);
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void testParseScoresKeepsOnlyValidEntries() {
+        // Given
+        String answer = "```json\n{\"scores\": ["
+                + "{\"drawing\": 1, \"score\": 90}, "
+                + "{\"drawing\": 2, \"score\": 130}, "
+                + "{\"drawing\": 3, \"score\": 40}, {\"drawing\": 3, \"score\": 45}, "
+                + "{\"drawing\": 5, \"score\": 10}, "
+                + "{\"drawing\": 4, \"score\": 12.5}]}\n```";
+
+        // When
+        Map<Integer, Integer> scores = OpenAIService.parseScores(answer, 4);
+
+        // Then
+        assertEquals(Map.of(1, 90), scores);
+        assertTrue(OpenAIService.parseScores("no puedo evaluar", 4).isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Stroke;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StrokeBroadcasterTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private StrokeBroadcaster strokeBroadcaster;
+
+    @Test
+    void testStrokesWithinATickAreSentAsOneFrame() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            strokeBroadcaster.publish("ABCD", new Stroke());
+        }
+        verifyNoInteractions(messagingTemplate);
+
+        // When
+        strokeBroadcaster.tick();
+
+        // Then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/ABCD/strokes"), captor.capture());
+        assertEquals(5, ((List<?>) captor.getValue()).size());
+    }
+
+    @Test
+    void testBatchesAreCappedAtMaxBatch() {
+        // Given
+        ReflectionTestUtils.setField(strokeBroadcaster, "maxBatch", 2);
+        for (int i = 0; i < 5; i++) {
+            strokeBroadcaster.publish("ABCD", new Stroke());
+        }
+
+        // When
+        strokeBroadcaster.tick();
+
+        // Then - 2 + 2 + 1
+        verify(messagingTemplate, times(3)).convertAndSend(eq("/topic/ABCD/strokes"), any(Object.class));
+    }
+
+    @Test
+    void testIdleGamesAreNotSent() {
+        // Given
+        strokeBroadcaster.publish("AAAA", new Stroke());
+        strokeBroadcaster.tick();
+
+        // When
+        strokeBroadcaster.tick();
+
+        // Then - and its queue is gone, as for games that end on another node
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+        assertEquals(0, strokeBroadcaster.pendingGames());
+    }
+
+    @Test
+    void testZeroTickSendsImmediately() {
+        // Given
+        ReflectionTestUtils.setField(strokeBroadcaster, "tickMs", 0L);
+        Stroke stroke = new Stroke();
+
+        // When
+        strokeBroadcaster.publish("ABCD", stroke);
+
+        // Then - the same shape as a batch
+        verify(messagingTemplate).convertAndSend("/topic/ABCD/strokes", (Object) List.of(stroke));
+    }
+
+    @Test
+    void testCloseSendsRemainingStrokes() {
+        // Given
+        strokeBroadcaster.publish("ABCD", new Stroke());
+
+        // When
+        strokeBroadcaster.close("ABCD");
+        strokeBroadcaster.tick();
+
+        // Then
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/ABCD/strokes"), any(Object.class));
+    }
+}
@@ -0,0 +1,231 @@
+package com.edu.eci.DrawSync.service;
+
+import com.edu.eci.DrawSync.model.Stroke;
+import com.edu.eci.DrawSync.repository.StrokeRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StrokeJournalTest {
+
+    @Mock
+    private StrokeRepository strokeRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private StrokeJournal strokeJournal;
+
+    @BeforeEach
+    void setUp() {
+        // Keep the periodic flush out of the way so tests control when batches are written
+        ReflectionTestUtils.setField(strokeJournal, "flushIntervalMs", 60_000L);
+        strokeJournal.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        strokeJournal.shutdown();
+    }
+
+    private Stroke stroke(String gameCode) {
+        Stroke stroke = new Stroke();
+        stroke.setSessionId(gameCode);
+        stroke.setTimestamp(System.currentTimeMillis());
+        return stroke;
+    }
+
+    private void givenUnorderedInsert() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Stroke.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private BulkOperationException bulkFailure(int code) {
+        BulkWriteError error = new BulkWriteError(code, "write failed", new BsonDocument(), 0);
+        return new BulkOperationException("write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+
+    @Test
+    void testAppendDoesNotWriteSynchronously() {
+        // When
+        strokeJournal.append(stroke("ABCD"));
+
+        // Then
+        verify(strokeRepository, never()).save(any(Stroke.class));
+        assertEquals(1, strokeJournal.pending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCloseWritesBufferedStrokesInOneBatch() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            strokeJournal.append(stroke("ABCD"));
+        }
+
+        // When
+        strokeJournal.close("ABCD");
+
+        // Then
+        ArgumentCaptor<List<Stroke>> captor = ArgumentCaptor.forClass(List.class);
+        verify(strokeRepository, times(1)).insert(captor.capture());
+        assertEquals(10, captor.getValue().size());
+        assertEquals(0, strokeJournal.pending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushOnlyWritesRequestedGame() {
+        // Given
+        strokeJournal.append(stroke("AAAA"));
+        strokeJournal.append(stroke("BBBB"));
+
+        // When
+        strokeJournal.flush("AAAA");
+
+        // Then
+        ArgumentCaptor<List<Stroke>> captor = ArgumentCaptor.forClass(List.class);
+        verify(strokeRepository, times(1)).insert(captor.capture());
+        assertEquals("AAAA", captor.getValue().get(0).getSessionId());
+        assertEquals(1, strokeJournal.pending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedBatchIsRetriedWithTheSameIds() {
+        // Given
+        when(strokeRepository.insert(anyList())).thenThrow(new RuntimeException("Mongo down"));
+        givenUnorderedInsert();
+        strokeJournal.append(stroke("ABCD"));
+        strokeJournal.append(stroke("ABCD"));
+
+        // When
+        strokeJournal.flush("ABCD");
+        assertEquals(2, strokeJournal.pending());
+        strokeJournal.flush("ABCD");
+
+        // Then - the retry inserts unordered with the ids of the first attempt
+        ArgumentCaptor<List<Stroke>> first = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Stroke>> retry = ArgumentCaptor.forClass(List.class);
+        verify(strokeRepository).insert(first.capture());
+        verify(bulkOperations).insert(retry.capture());
+        assertEquals(first.getValue().stream().map(Stroke::getId).toList(),
+                retry.getValue().stream().map(Stroke::getId).toList());
+        assertEquals(0, strokeJournal.pending());
+    }
+
+    @Test
+    void testRetryCountsAlreadyStoredStrokesAsWritten() {
+        // Given - the first attempt stored the stroke but its answer was lost
+        when(strokeRepository.insert(anyList())).thenThrow(new RuntimeException("Connection reset"));
+        givenUnorderedInsert();
+        when(bulkOperations.execute()).thenThrow(bulkFailure(11000));
+        strokeJournal.append(stroke("ABCD"));
+        strokeJournal.flush("ABCD");
+
+        // When
+        strokeJournal.flush("ABCD");
+
+        // Then
+        assertEquals(0, strokeJournal.pending());
+    }
+
+    @Test
+    void testRetryKeepsStrokesOnOtherWriteErrors() {
+        // Given
+        when(strokeRepository.insert(anyList())).thenThrow(new RuntimeException("Mongo down"));
+        givenUnorderedInsert();
+        when(bulkOperations.execute()).thenThrow(bulkFailure(121));
+        strokeJournal.append(stroke("ABCD"));
+        strokeJournal.flush("ABCD");
+
+        // When
+        strokeJournal.flush("ABCD");
+
+        // Then
+        assertEquals(1, strokeJournal.pending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFullBufferWritesBufferedStrokesBeforeTheNewOne() {
+        // Given - room for one stroke only
+        ReflectionTestUtils.setField(strokeJournal, "capacity", 1);
+        ReflectionTestUtils.setField(strokeJournal, "permits", new Semaphore(1));
+        ReflectionTestUtils.setField(strokeJournal, "offerTimeoutMs", 1L);
+        Stroke buffered = stroke("ABCD");
+        strokeJournal.append(buffered);
+
+        // When
+        Stroke overflow = stroke("ABCD");
+        strokeJournal.append(overflow);
+
+        // Then - one insert on the caller thread, in buffer order
+        ArgumentCaptor<List<Stroke>> captor = ArgumentCaptor.forClass(List.class);
+        verify(strokeRepository).insert(captor.capture());
+        assertEquals(List.of(buffered, overflow), captor.getValue());
+        assertTrue(buffered.getId().compareTo(overflow.getId()) < 0);
+        assertEquals(0, strokeJournal.pending());
+    }
+
+    @Test
+    void testFailedCloseIsRetriedByThePeriodicFlush() {
+        // Given
+        when(strokeRepository.insert(anyList())).thenThrow(new RuntimeException("Mongo down"));
+        givenUnorderedInsert();
+        strokeJournal.append(stroke("ABCD"));
+        strokeJournal.close("ABCD");
+        assertEquals(1, strokeJournal.pending());
+
+        // When
+        strokeJournal.flushAll();
+
+        // Then - written and its permit released
+        verify(strokeRepository, times(1)).insert(anyList());
+        verify(bulkOperations).execute();
+        assertEquals(0, strokeJournal.pending());
+    }
+
+    @Test
+    void testStrokesForClosedGameAreDropped() {
+        // Given
+        strokeJournal.close("ABCD");
+
+        // When
+        strokeJournal.append(stroke("ABCD"));
+        strokeJournal.flushAll();
+
+        // Then
+        verify(strokeRepository, never()).insert(anyList());
+        verify(strokeRepository, never()).save(any(Stroke.class));
+        assertEquals(0, strokeJournal.pending());
+    }
+}
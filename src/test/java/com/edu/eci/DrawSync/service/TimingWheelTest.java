@@ -0,0 +1,71 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    // Runs batches on the wheel thread itself
+    private final TimingWheel wheel = new TimingWheel("test-wheel", 10, 8, Runnable::run);
+
+    @AfterEach
+    void stopWheel() {
+        wheel.stop();
+    }
+
+    @Test
+    void testTimersFireInDeadlineOrder() throws InterruptedException {
+        // Given
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        // When
+        wheel.schedule(() -> { fired.add(3); done.countDown(); }, 60, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(1); done.countDown(); }, 0, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(2); done.countDown(); }, 30, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), fired);
+    }
+
+    @Test
+    void testDelayLongerThanOneRevolution() throws InterruptedException {
+        // Given - 8 slots of 10 ms is one revolution every 80 ms
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // When
+        TimingWheel.Timeout timeout = wheel.schedule(done::countDown, 250, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs >= 250, "Fired early after " + elapsedMs + " ms");
+        assertTrue(timeout.isExpired());
+    }
+
+    @Test
+    void testCancelledTimerDoesNotFire() throws InterruptedException {
+        // Given
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch later = new CountDownLatch(1);
+
+        // When
+        TimingWheel.Timeout timeout = wheel.schedule(cancelled::countDown, 30, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        wheel.schedule(later::countDown, 60, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertTrue(later.await(2, TimeUnit.SECONDS));
+        assertEquals(1, cancelled.getCount());
+        assertFalse(timeout.cancel());
+    }
+}
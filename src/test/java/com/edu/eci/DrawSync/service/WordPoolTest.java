@@ -0,0 +1,112 @@
+package com.edu.eci.DrawSync.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WordPoolTest {
+
+    @Mock
+    private OpenAIService openAIService;
+
+    @InjectMocks
+    private WordPool wordPool;
+
+    @Test
+    void testRefillSkipsDuplicates() {
+        // Given
+        when(openAIService.getRandomWords(anyInt())).thenReturn(List.of("Árbol", "Gato", "arbol", "GATO", "Pizza"));
+
+        // When
+        int added = wordPool.refill();
+
+        // Then
+        assertEquals(3, added);
+        assertEquals(3, wordPool.size());
+    }
+
+    @Test
+    void testNextReturnsPooledWordsWithoutCallingApi() {
+        // Given
+        ReflectionTestUtils.setField(wordPool, "lowWater", 0);
+        when(openAIService.getRandomWords(anyInt())).thenReturn(List.of("Pizza", "Castillo"));
+        wordPool.refill();
+
+        // When
+        String first = wordPool.next();
+        String second = wordPool.next();
+
+        // Then
+        assertEquals("Pizza", first);
+        assertEquals("Castillo", second);
+        verify(openAIService, times(1)).getRandomWords(anyInt());
+    }
+
+    @Test
+    void testNextFallsBackWhenEmpty() {
+        // Given
+        ReflectionTestUtils.setField(wordPool, "lowWater", 0);
+
+        // When
+        String word = wordPool.next();
+
+        // Then
+        assertTrue(Arrays.asList(WordPool.FALLBACK_WORDS).contains(word));
+        verifyNoInteractions(openAIService);
+    }
+
+    @Test
+    void testRecentWordsAreNotRepeatedUntilForgotten() {
+        // Given
+        ReflectionTestUtils.setField(wordPool, "lowWater", 0);
+        ReflectionTestUtils.setField(wordPool, "recentSize", 1);
+        when(openAIService.getRandomWords(anyInt()))
+                .thenReturn(List.of("Pizza"))
+                .thenReturn(List.of("Pizza", "Barco"))
+                .thenReturn(List.of("Pizza"));
+
+        // When
+        wordPool.refill();
+        wordPool.next();
+        List<String> served = new ArrayList<>();
+        wordPool.refill();
+        served.add(wordPool.next());
+        wordPool.refill();
+        served.add(wordPool.next());
+
+        // Then - Pizza was skipped while recent, accepted again once Barco pushed it out
+        assertEquals(List.of("Barco", "Pizza"), served);
+    }
+
+    @Test
+    void testLowPoolTriggersBackgroundRefill() {
+        // Given
+        when(openAIService.getRandomWords(anyInt())).thenReturn(List.of("Pizza", "Castillo"));
+
+        // When
+        wordPool.next();
+
+        // Then
+        verify(openAIService, timeout(1000)).getRandomWords(50);
+        wordPool.shutdown();
+    }
+
+    @Test
+    void testParseWordsStripsNumberingAndPunctuation() {
+        List<String> words = OpenAIService.parseWords("1. Bicicleta\n2) Pizza.\n- Castillo\n\nTorre Eiffel, Sol");
+
+        assertEquals(List.of("Bicicleta", "Pizza", "Castillo", "Sol"), words);
+    }
+}